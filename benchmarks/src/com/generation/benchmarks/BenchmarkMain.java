@@ -0,0 +1,25 @@
+package com.generation.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks from the IDE. Arguments are regular expressions selecting the
+ * benchmarks to run; without arguments every benchmark runs.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        if (args.length == 0) {
+            options.include(BenchmarkMain.class.getPackageName() + "\\..*");
+        }
+        for (String pattern : args) {
+            options.include(pattern);
+        }
+        Options built = options.jvmArgsAppend("--enable-preview").build();
+        new Runner(built).run();
+    }
+}
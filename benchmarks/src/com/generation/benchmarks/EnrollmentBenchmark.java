@@ -0,0 +1,59 @@
+package com.generation.benchmarks;
+
+import com.generation.model.Course;
+import com.generation.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks CourseService.enrollStudent into courses whose rosters already hold every
+ * subscribed student. The services are rebuilt every iteration, so the rosters grown by the
+ * benchmark start at the configured size again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EnrollmentBenchmark {
+
+    @Param({"1000", "100000"})
+    int studentsPerService;
+
+    @Param({"1", "10"})
+    int coursesPerStudent;
+
+    private Fixtures fixtures;
+
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fixtures = new Fixtures(studentsPerService, coursesPerStudent);
+        next = 0;
+    }
+
+    /**
+     * Enrolls a new student into one of the courses, cycling through them.
+     */
+    @Benchmark
+    public boolean enrollStudent() {
+        int i = next++;
+        Course course = fixtures.courses[i % fixtures.courses.length];
+        Student student = Fixtures.newStudent("N" + i / fixtures.courses.length);
+        return fixtures.courseService.enrollStudent(course.getCode(), student);
+    }
+}
@@ -0,0 +1,66 @@
+package com.generation.benchmarks;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import com.generation.service.EnrollmentRegistry;
+import com.generation.service.StudentService;
+
+import java.util.Random;
+
+/**
+ * Builds populated services for the benchmarks. Courses are registered on top of the default
+ * catalog in a module without prerequisites, so any number of them can be taken.
+ */
+final class Fixtures {
+
+    // Fixed seed so every run benchmarks the same data
+    private static final long SEED = 42;
+
+    final EnrollmentRegistry registry = new EnrollmentRegistry();
+
+    final StudentService studentService = new StudentService(registry);
+
+    final CourseService courseService = new CourseService(registry);
+
+    final Course[] courses;
+
+    final String[] studentIds;
+
+    /**
+     * @param students           number of students to subscribe
+     * @param coursesPerStudent  number of courses each student is enrolled in and graded for
+     */
+    Fixtures(int students, int coursesPerStudent) {
+        courses = createCourses(courseService, coursesPerStudent);
+        studentIds = new String[students];
+        Random random = new Random(SEED);
+        for (int i = 0; i < students; i++) {
+            studentIds[i] = studentId(i);
+            studentService.subscribeStudent(newStudent(studentIds[i]));
+            for (Course course : courses) {
+                studentService.enrollToCourse(studentIds[i], course);
+                studentService.gradeStudentCourse(studentIds[i], course.getCode(), random.nextInt(101) / 10.0);
+            }
+        }
+    }
+
+    static Course[] createCourses(CourseService courseService, int count) {
+        Module module = new Module("BENCH", "Benchmarks", "Courses created for the benchmarks");
+        Course[] courses = new Course[count];
+        for (int i = 0; i < count; i++) {
+            courses[i] = new Course("BENCH-" + i, "Benchmark Course " + i, 1 + i % 12, module);
+            courseService.registerCourse(courses[i]);
+        }
+        return courses;
+    }
+
+    static Student newStudent(String id) {
+        return new Student(id, "Student " + id, id + "@example.com", null);
+    }
+
+    static String studentId(int i) {
+        return "S" + i;
+    }
+}
@@ -0,0 +1,73 @@
+package com.generation.benchmarks;
+
+import com.generation.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the services over a populated registry: student lookups and rendering the
+ * summaries. Enrollment is measured by {@link EnrollmentBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    int studentsPerService;
+
+    @Param({"1", "10"})
+    int coursesPerStudent;
+
+    private Fixtures fixtures;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new Fixtures(studentsPerService, coursesPerStudent);
+    }
+
+    /**
+     * Looks up subscribed students by ID, cycling through all of them.
+     */
+    @Benchmark
+    public Student findStudent() {
+        String[] ids = fixtures.studentIds;
+        return fixtures.studentService.findStudent(ids[next++ % ids.length]);
+    }
+
+    /**
+     * Renders the full students summary; the output is discarded.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int writeStudentsSummary() {
+        return fixtures.studentService.writeSummary(Writer.nullWriter(), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Renders the full courses summary with rosters; the output is discarded.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int writeCoursesSummary() {
+        return fixtures.courseService.writeSummary(Writer.nullWriter(), 0, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,80 @@
+package com.generation.benchmarks;
+
+import com.generation.model.Course;
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Student model on its own: enrolling in courses and recording grades,
+ * which includes the running average update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StudentBenchmark {
+
+    @Param({"1", "10", "50"})
+    int coursesPerStudent;
+
+    private Course[] courses;
+
+    private Student graded;
+
+    private double[] grades;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        courses = Fixtures.createCourses(new CourseService(), coursesPerStudent);
+        graded = Fixtures.newStudent("S0");
+        for (Course course : courses) {
+            graded.enrollToCourse(course);
+            graded.gradeCourse(course.getCode(), 5.0);
+        }
+        grades = new double[1024];
+        for (int i = 0; i < grades.length; i++) {
+            grades[i] = (i * 7 % 101) / 10.0;
+        }
+    }
+
+    /**
+     * Enrolls a new student in every course; cost per operation covers all enrollments.
+     */
+    @Benchmark
+    public Student enrollToCourse() {
+        Student student = Fixtures.newStudent("S1");
+        for (Course course : courses) {
+            student.enrollToCourse(course);
+        }
+        return student;
+    }
+
+    /**
+     * Re-grades one of the student's courses, cycling through courses and grades.
+     */
+    @Benchmark
+    public double gradeCourse() {
+        int i = next++;
+        Course course = courses[i % courses.length];
+        graded.gradeCourse(course.getCode(), grades[i & (grades.length - 1)]);
+        return graded.getWeightedAverage();
+    }
+}
@@ -1,10 +1,28 @@
 package com.generation;
 
+import com.generation.command.BatchRunner;
+import com.generation.command.CommandProcessor;
+import com.generation.command.CommandServer;
+import com.generation.metrics.Metrics;
 import com.generation.model.Course;
+import com.generation.model.Module;
 import com.generation.model.Student;
+import com.generation.persistence.FsyncPolicy;
+import com.generation.persistence.Journal;
+import com.generation.persistence.Snapshot;
 import com.generation.service.CourseService;
+import com.generation.service.EnrollmentRegistry;
 import com.generation.service.StudentService;
 import com.generation.utils.PrinterHelper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -13,17 +31,44 @@ import java.util.Scanner;
  */
 public class Main {
 
-    // Static services used throughout the application
-    private static final StudentService studentService = new StudentService();
-    private static final CourseService courseService = new CourseService();
+    // Static services used throughout the application, sharing one enrollment registry
+    private static final EnrollmentRegistry enrollmentRegistry = new EnrollmentRegistry();
+    private static final StudentService studentService = new StudentService(enrollmentRegistry);
+    private static final CourseService courseService = new CourseService(enrollmentRegistry);
 
     // Scanner for reading user input from the console
     private static final Scanner scanner = new Scanner(System.in);
 
+    // Journal file and fsync policy, configurable with -Dstudentgen.journal and -Dstudentgen.fsync
+    private static final String JOURNAL_FILE = System.getProperty("studentgen.journal", "studentgen.journal");
+    private static final String SNAPSHOT_FILE = System.getProperty("studentgen.snapshot", "studentgen.snapshot");
+    private static final String FSYNC_POLICY = System.getProperty("studentgen.fsync", FsyncPolicy.ALWAYS.name());
+
+    // Interval of background syncs when the fsync policy is INTERVAL
+    private static final long SYNC_INTERVAL_MS = 100;
+
+    // Port of the command server, configurable with -Dstudentgen.port or after --server
+    private static final int SERVER_PORT = Integer.getInteger("studentgen.port", 7070);
+
     @SuppressWarnings("unused")
     public static void main(String[] args) {
         int option;
 
+        Metrics.registerMBeans();                    // Publish operation metrics over JMX
+        long journalOffset = loadSnapshot();         // Restore the last saved state
+        Journal journal = openJournal(journalOffset); // Apply later changes and record new ones
+
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : SERVER_PORT, journal);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : "-");
+            saveSnapshot(journal);
+            closeJournal(journal);
+            return;
+        }
+
         // Main loop showing menu options and processing user choices
         do {
             PrinterHelper.showMainMenu();     // Display menu options
@@ -42,6 +87,143 @@ public class Main {
         } while (option != 7);  // Continue until user selects exit option
 
         scanner.close(); // Close Scanner resource before exit
+        saveSnapshot(journal);
+        closeJournal(journal);
+    }
+
+    /**
+     * Serves commands over a local socket instead of the menu, until the process is stopped.
+     * The state is saved by a shutdown hook.
+     *
+     * @param port    the port to listen on
+     * @param journal the open journal, may be null
+     */
+    private static void runServer(int port, Journal journal) {
+        CommandServer server;
+        try {
+            server = new CommandServer(new CommandProcessor(studentService, courseService), port);
+        } catch (IOException e) {
+            System.out.println("Cannot listen on port " + port + ": " + e.getMessage());
+            saveSnapshot(journal);
+            closeJournal(journal);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.out.println("Failed to stop the server cleanly: " + e.getMessage());
+            }
+            saveSnapshot(journal);
+            closeJournal(journal);
+        }));
+        server.start();
+        System.out.println("Listening for commands on localhost:" + server.getPort());
+    }
+
+    /**
+     * Runs a command script without menus, writing the responses to standard output and the
+     * run summary to standard error, which also carries the persistence diagnostics, so
+     * standard output holds nothing but responses.
+     *
+     * @param source the script file, or "-" for standard input
+     */
+    private static void runBatch(String source) {
+        BatchRunner runner = new BatchRunner(new CommandProcessor(studentService, courseService));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 64 * 1024);
+        BatchRunner.Summary summary = null;
+        try (BufferedReader script = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(Path.of(source))) {
+            summary = runner.run(script, out);
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+        } finally {
+            // Responses to the commands that completed are written even if the script failed
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to write responses: " + e.getMessage());
+            }
+        }
+        if (summary != null) {
+            try {
+                Writer err = new OutputStreamWriter(System.err, System.err.charset());
+                summary.writeTo(err);
+                err.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to write the batch summary: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads the snapshot file into the services, if there is one.
+     *
+     * @return the journal offset to replay from
+     */
+    private static long loadSnapshot() {
+        Path file = Path.of(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try {
+            return Snapshot.load(file, studentService, courseService);
+        } catch (IOException e) {
+            System.err.println("Snapshot unusable, restoring from the journal only: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Saves the current state so the next start does not need to replay the whole journal.
+     *
+     * @param journal the open journal, may be null
+     */
+    private static void saveSnapshot(Journal journal) {
+        try {
+            Snapshot.write(Path.of(SNAPSHOT_FILE), studentService, courseService, journal == null ? 0 : journal.position());
+        } catch (IOException e) {
+            System.err.println("Failed to save snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the journal, replays it into the services and starts recording mutations.
+     *
+     * @param fromOffset journal offset to replay from
+     * @return the open journal, or null if it could not be opened
+     */
+    private static Journal openJournal(long fromOffset) {
+        try {
+            Journal journal = new Journal(Path.of(JOURNAL_FILE), FsyncPolicy.valueOf(FSYNC_POLICY), SYNC_INTERVAL_MS);
+            if (!journal.isRecordBoundary(fromOffset)) {
+                System.err.println("Journal does not match the snapshot, replaying all of " + JOURNAL_FILE);
+            }
+            long replayed = journal.replay(fromOffset, studentService, courseService);
+            System.err.println("Restored " + replayed + " changes from " + JOURNAL_FILE);
+            enrollmentRegistry.addListener(journal);
+            return journal;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Journal unavailable, changes will not be saved: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes outstanding journal records and closes the journal.
+     *
+     * @param journal the journal to close, may be null
+     */
+    private static void closeJournal(Journal journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Failed to save the last changes: " + e.getMessage());
+        }
     }
 
     /**
@@ -57,13 +239,10 @@ public class Main {
             return;
         }
 
-        if (Main.studentService.isSubscribed(student.getId())) {
+        // Subscribe/register the new student unless the ID is already taken
+        if (!Main.studentService.subscribeStudentIfAbsent(student)) {
             System.out.println("Student with ID " + student.getId() + " is already registered.");
-            return;
         }
-
-        // Subscribe/register the new student
-        Main.studentService.subscribeStudent(student);
     }
 
     /**
@@ -136,7 +315,7 @@ public class Main {
     /**
      * Enrolls a student to a course by IDs.
      * Checks validity of student and course,
-     * then attempts to enroll both in each other's data structures.
+     * then records the enrollment once in the shared registry.
      */
     private static void enrollStudentToCourse() {
         System.out.println("Insert student ID");
@@ -161,13 +340,18 @@ public class Main {
         // Nicely print course info using helper
         PrinterHelper.printCourseInfo(course);
 
-        // Enroll student in course and course in student's record
-        boolean studentEnrolled = studentService.enrollToCourse(studentId, course);
-        boolean courseEnrolled = courseService.enrollStudent(courseId, student);
+        // Enroll student in course; the registry updates both the roster and the student's record
+        boolean enrolled = studentService.enrollToCourse(studentId, course);
 
-        // Check if already enrolled or successfully enrolled
-        if (!studentEnrolled || !courseEnrolled) {
+        // Check if already enrolled, missing prerequisites or successfully enrolled
+        if (!enrolled && student.isAttendingCourse(courseId)) {
             System.out.println("Student " + studentId + " is already enrolled in course " + courseId);
+        } else if (!enrolled) {
+            System.out.print("Student " + studentId + " must first complete the modules:");
+            for (Module module : studentService.getMissingPrerequisites(studentId, course)) {
+                System.out.print(" " + module.getCode());
+            }
+            System.out.println();
         } else {
             System.out.println("Student with ID: " + studentId + " enrolled successfully to " + courseId);
         }
@@ -0,0 +1,105 @@
+package com.generation.command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs a script of {@link CommandProcessor} commands, one per line, writing every response to
+ * one writer. The script ends at its last line or at {@code QUIT}. A failing command does not
+ * stop the script; it is counted and the run goes on.
+ */
+public class BatchRunner {
+
+    /**
+     * Counts and total time of one kind of command.
+     *
+     * @param count number of commands run
+     * @param nanos total time spent running them, in nanoseconds
+     */
+    public record CommandTiming(int count, long nanos) {
+    }
+
+    /**
+     * Outcome of a script.
+     *
+     * @param commands     number of commands run
+     * @param failed       number of commands answered with an error
+     * @param elapsedNanos wall time of the whole run, in nanoseconds
+     * @param byCommand    timings by command name, in order of first use
+     */
+    public record Summary(int commands, int failed, long elapsedNanos, Map<String, CommandTiming> byCommand) {
+
+        /**
+         * Writes the summary as comment lines, so it can follow the responses of the script.
+         *
+         * @param out the destination; not flushed
+         * @throws IOException if the summary cannot be written
+         */
+        public void writeTo(Writer out) throws IOException {
+            out.write(String.format(Locale.ROOT, "# %d commands, %d failed, %.1f ms%n",
+                    commands, failed, elapsedNanos / 1e6));
+            for (Map.Entry<String, CommandTiming> entry : byCommand.entrySet()) {
+                CommandTiming timing = entry.getValue();
+                out.write(String.format(Locale.ROOT, "# %-8s %8d %10.1f ms %8.1f us/op%n", entry.getKey(),
+                        timing.count(), timing.nanos() / 1e6, timing.nanos() / 1e3 / timing.count()));
+            }
+        }
+    }
+
+    private final CommandProcessor processor;
+
+    /**
+     * Creates a runner.
+     *
+     * @param processor the processor running the commands
+     */
+    public BatchRunner(CommandProcessor processor) {
+        this.processor = processor;
+    }
+
+    /**
+     * Runs a script.
+     *
+     * @param script the commands
+     * @param out    the destination of the responses; not flushed
+     * @return counts and timings of the run
+     * @throws IOException if the script cannot be read or a response cannot be written
+     */
+    public Summary run(BufferedReader script, Writer out) throws IOException {
+        Map<String, long[]> tallies = new LinkedHashMap<>();
+        int commands = 0;
+        int failed = 0;
+        long runStart = System.nanoTime();
+        String line;
+        while ((line = script.readLine()) != null) {
+            long start = System.nanoTime();
+            CommandProcessor.Outcome outcome = processor.execute(line, out);
+            if (outcome == CommandProcessor.Outcome.IGNORED) {
+                continue;
+            }
+            long[] tally = tallies.computeIfAbsent(commandName(line), _ -> new long[2]);
+            tally[0]++;
+            tally[1] += System.nanoTime() - start;
+            commands++;
+            if (outcome == CommandProcessor.Outcome.ERROR) {
+                failed++;
+            } else if (outcome == CommandProcessor.Outcome.QUIT) {
+                break;
+            }
+        }
+        long elapsed = System.nanoTime() - runStart;
+
+        Map<String, CommandTiming> byCommand = new LinkedHashMap<>();
+        tallies.forEach((name, tally) -> byCommand.put(name, new CommandTiming((int) tally[0], tally[1])));
+        return new Summary(commands, failed, elapsed, Collections.unmodifiableMap(byCommand));
+    }
+
+    private static String commandName(String line) {
+        return line.strip().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+    }
+}
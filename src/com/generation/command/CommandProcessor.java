@@ -0,0 +1,193 @@
+package com.generation.command;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import com.generation.service.StudentService;
+import com.generation.utils.InputValidator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Runs text commands against the services, without menus or prompts. One command per line,
+ * fields separated by spaces; command names are case-insensitive:
+ * <pre>
+ * REGISTER &lt;id&gt; &lt;email&gt; &lt;dd/MM/yyyy&gt; &lt;name...&gt;
+ * FIND &lt;studentId&gt;
+ * ENROLL &lt;studentId&gt; &lt;courseCode&gt;
+ * GRADE &lt;studentId&gt; &lt;courseCode&gt; &lt;grade&gt;
+ * STUDENTS [&lt;offset&gt; &lt;limit&gt;]
+ * COURSES [&lt;offset&gt; &lt;limit&gt;]
+ * QUIT
+ * </pre>
+ * Every response starts with a line beginning {@code OK} or {@code ERR}. Summaries answer
+ * {@code OK <n>} followed by their n lines. Blank lines and lines starting with {@code #}
+ * are ignored and get no response.
+ * <p>
+ * Commands get the same checks as the interactive menu. The processor holds no state of its
+ * own, so one instance can serve many threads.
+ */
+public class CommandProcessor {
+
+    /**
+     * Result of one command.
+     */
+    public enum Outcome {
+        OK, ERROR, IGNORED, QUIT
+    }
+
+    private final StudentService studentService;
+
+    private final CourseService courseService;
+
+    /**
+     * Creates a processor.
+     *
+     * @param studentService the service students are managed in
+     * @param courseService  the service courses are resolved from
+     */
+    public CommandProcessor(StudentService studentService, CourseService courseService) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+    }
+
+    /**
+     * Runs one command and writes its response.
+     *
+     * @param line the command line
+     * @param out  the destination of the response; not flushed
+     * @return the outcome of the command
+     * @throws IOException if the response cannot be written
+     */
+    public Outcome execute(String line, Writer out) throws IOException {
+        String command = line.strip();
+        if (command.isEmpty() || command.startsWith("#")) {
+            return Outcome.IGNORED;
+        }
+        String[] fields = command.split("\\s+", 5);
+        String response = switch (fields[0].toUpperCase()) {
+            case "REGISTER" -> register(fields);
+            case "FIND" -> find(fields);
+            case "ENROLL" -> enroll(fields);
+            case "GRADE" -> grade(fields);
+            case "STUDENTS" -> summary(fields, true);
+            case "COURSES" -> summary(fields, false);
+            case "QUIT" -> "OK Bye";
+            default -> "ERR Unknown command " + fields[0];
+        };
+        out.write(response);
+        out.write('\n');
+        if (response.startsWith("ERR")) {
+            return Outcome.ERROR;
+        }
+        return fields[0].equalsIgnoreCase("QUIT") ? Outcome.QUIT : Outcome.OK;
+    }
+
+    private String register(String[] fields) {
+        if (fields.length < 5) {
+            return "ERR Usage: REGISTER <id> <email> <dd/MM/yyyy> <name>";
+        }
+        if (!InputValidator.isValidEmail(fields[2])) {
+            return "ERR Invalid email " + fields[2];
+        }
+        Date birthDate = InputValidator.parseDate(fields[3]);
+        if (birthDate == null) {
+            return "ERR Invalid date " + fields[3] + ", use dd/MM/yyyy";
+        }
+        if (!studentService.subscribeStudentIfAbsent(new Student(fields[1], fields[4], fields[2], birthDate))) {
+            return "ERR Student with ID " + fields[1] + " is already registered";
+        }
+        return "OK Registered " + fields[1];
+    }
+
+    private String find(String[] fields) {
+        if (fields.length != 2) {
+            return "ERR Usage: FIND <studentId>";
+        }
+        Student student = studentService.findStudent(fields[1]);
+        return student == null ? "ERR Student with ID " + fields[1] + " not found" : "OK " + student;
+    }
+
+    private String enroll(String[] fields) {
+        if (fields.length != 3) {
+            return "ERR Usage: ENROLL <studentId> <courseCode>";
+        }
+        Student student = studentService.findStudent(fields[1]);
+        if (student == null) {
+            return "ERR Student with ID " + fields[1] + " not found";
+        }
+        Course course = courseService.getCourse(fields[2]);
+        if (course == null) {
+            return "ERR Course " + fields[2] + " not found";
+        }
+        if (studentService.enrollToCourse(student.getId(), course)) {
+            return "OK Enrolled " + student.getId() + " in " + course.getCode();
+        }
+        if (student.isAttendingCourse(course.getCode())) {
+            return "ERR Student " + student.getId() + " is already enrolled in " + course.getCode();
+        }
+        StringBuilder missing = new StringBuilder("ERR Student " + student.getId() + " must first complete the modules:");
+        for (Module module : studentService.getMissingPrerequisites(student.getId(), course)) {
+            missing.append(' ').append(module.getCode());
+        }
+        return missing.toString();
+    }
+
+    private String grade(String[] fields) {
+        if (fields.length != 4) {
+            return "ERR Usage: GRADE <studentId> <courseCode> <grade>";
+        }
+        Student student = studentService.findStudent(fields[1]);
+        if (student == null) {
+            return "ERR Student with ID " + fields[1] + " not found";
+        }
+        if (courseService.getCourse(fields[2]) == null) {
+            return "ERR Course " + fields[2] + " not found";
+        }
+        if (!student.isAttendingCourse(fields[2])) {
+            return "ERR Student " + student.getId() + " is not enrolled in " + fields[2];
+        }
+        double grade;
+        try {
+            grade = Double.parseDouble(fields[3]);
+        } catch (NumberFormatException e) {
+            return "ERR Invalid grade " + fields[3];
+        }
+        if (!(grade >= 0.0 && grade <= 10.0)) {
+            return "ERR Grade must be between 0.0 and 10.0";
+        }
+        studentService.gradeStudentCourse(student.getId(), fields[2], grade);
+        return "OK Graded " + student.getId() + " in " + fields[2];
+    }
+
+    private String summary(String[] fields, boolean students) {
+        int offset = 0;
+        int limit = Integer.MAX_VALUE;
+        if (fields.length == 3) {
+            try {
+                offset = Integer.parseInt(fields[1]);
+                limit = Integer.parseInt(fields[2]);
+            } catch (NumberFormatException e) {
+                return "ERR Invalid page " + fields[1] + " " + fields[2];
+            }
+        } else if (fields.length != 1) {
+            return "ERR Usage: " + fields[0].toUpperCase() + " [<offset> <limit>]";
+        }
+        if (offset < 0 || limit < 0) {
+            return "ERR Invalid page " + offset + " " + limit;
+        }
+        StringWriter text = new StringWriter();
+        if (students) {
+            studentService.writeSummary(text, offset, limit);
+        } else {
+            courseService.writeSummary(text, offset, limit);
+        }
+        List<String> lines = text.toString().lines().toList();
+        return "OK " + lines.size() + (lines.isEmpty() ? "" : "\n" + String.join("\n", lines));
+    }
+}
@@ -0,0 +1,118 @@
+package com.generation.command;
+
+import com.generation.service.CourseService;
+import com.generation.service.EnrollmentRegistry;
+import com.generation.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandProcessorTest {
+
+    private StudentService studentService;
+    private CommandProcessor processor;
+
+    /**
+     * Sets up a processor over services sharing one registry.
+     */
+    @BeforeEach
+    void setUp() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        studentService = new StudentService(registry);
+        processor = new CommandProcessor(studentService, new CourseService(registry));
+    }
+
+    private String run(String line) throws Exception {
+        StringWriter out = new StringWriter();
+        processor.execute(line, out);
+        return out.toString();
+    }
+
+    /**
+     * Tests registering, enrolling and grading a student through commands, and that invalid
+     * commands are answered with an error instead of changing anything.
+     */
+    @Test
+    void testCommandsUpdateServices() throws Exception {
+        assertEquals("OK Registered S001\n", run("REGISTER S001 john@example.com 01/01/2000 John Doe"));
+        assertTrue(run("register S001 john@example.com 01/01/2000 John Doe").startsWith("ERR"));
+        assertTrue(run("REGISTER S002 not-an-email 01/01/2000 Jane").startsWith("ERR Invalid email"));
+        assertEquals("John Doe", studentService.findStudent("S001").getName());
+
+        assertTrue(run("GRADE S001 INTRO-CS-1 8").startsWith("ERR Student S001 is not enrolled"));
+        assertEquals("OK Enrolled S001 in INTRO-CS-1\n", run("ENROLL S001 INTRO-CS-1"));
+        assertTrue(run("ENROLL S001 INTRO-CS-1").contains("already enrolled"));
+        assertTrue(run("GRADE S001 INTRO-CS-1 11").startsWith("ERR"));
+        assertEquals("OK Graded S001 in INTRO-CS-1\n", run("GRADE S001 INTRO-CS-1 8.5"));
+        assertTrue(studentService.findStudent("S001").isCourseApproved("INTRO-CS-1"));
+
+        assertTrue(run("FIND S001").startsWith("OK "));
+        assertTrue(run("FIND S999").startsWith("ERR"));
+        assertTrue(run("DELETE S001").startsWith("ERR Unknown command"));
+        assertEquals(CommandProcessor.Outcome.IGNORED, processor.execute("# comment", new StringWriter()));
+        assertEquals(CommandProcessor.Outcome.QUIT, processor.execute("QUIT", new StringWriter()));
+
+        String[] summary = run("STUDENTS 0 10").split("\n");
+        assertEquals("OK " + (summary.length - 1), summary[0]);
+    }
+
+    /**
+     * Tests that the server answers pipelined commands in order and closes on QUIT.
+     */
+    @Test
+    void testServerRoundTrip() throws Exception {
+        try (CommandServer server = new CommandServer(processor, 0, 4, 2)) {
+            server.start();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                out.print("REGISTER S010 ada@example.com 10/12/1995 Ada Lovelace\nENROLL S010 INTRO-WEB-1\nQUIT\n");
+                out.flush();
+                assertEquals("OK Registered S010", in.readLine());
+                assertEquals("OK Enrolled S010 in INTRO-WEB-1", in.readLine());
+                assertEquals("OK Bye", in.readLine());
+                assertNull(in.readLine());
+            }
+        }
+        assertTrue(studentService.findStudent("S010").isAttendingCourse("INTRO-WEB-1"));
+    }
+
+    /**
+     * Tests that a script runs to QUIT, keeps going after failing commands and counts them.
+     */
+    @Test
+    void testBatchRunsScriptAndCountsCommands() throws Exception {
+        String script = """
+                # Day one
+                REGISTER S001 john@example.com 01/01/2000 John Doe
+                ENROLL S001 INTRO-CS-1
+                ENROLL S001 NO-SUCH-COURSE
+                GRADE S001 INTRO-CS-1 7
+                QUIT
+                FIND S001
+                """;
+        StringWriter out = new StringWriter();
+        BatchRunner.Summary summary = new BatchRunner(processor).run(new BufferedReader(new StringReader(script)), out);
+
+        assertEquals(5, summary.commands());
+        assertEquals(1, summary.failed());
+        assertEquals(2, summary.byCommand().get("ENROLL").count());
+        assertNull(summary.byCommand().get("FIND"));
+        assertEquals(5, out.toString().lines().count());
+        assertEquals(7.0, studentService.findStudent("S001").getGrade("INTRO-CS-1"), 0.0);
+
+        StringWriter report = new StringWriter();
+        summary.writeTo(report);
+        assertTrue(report.toString().startsWith("# 5 commands, 1 failed"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.generation.command;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link CommandProcessor} commands to local clients over TCP, one command per line.
+ * <p>
+ * Each connection runs on its own virtual thread, so thousands of idle clients cost little.
+ * Two semaphores apply backpressure: one caps open connections, turning extra clients away
+ * with {@code ERR busy}, and one caps commands executing at once. A command that cannot get
+ * a permit within the wait time is answered {@code ERR busy} instead of queueing without bound.
+ * <p>
+ * The server only listens on the loopback address.
+ */
+public class CommandServer implements Closeable {
+
+    // Defaults, configurable with -Dstudentgen.server.connections and -Dstudentgen.server.inflight
+    private static final int MAX_CONNECTIONS = Integer.getInteger("studentgen.server.connections", 1024);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("studentgen.server.inflight",
+            Runtime.getRuntime().availableProcessors() * 4);
+
+    // How long a command waits for a permit before being rejected
+    private static final long PERMIT_WAIT_MS = 500;
+
+    private final CommandProcessor processor;
+
+    private final ServerSocket serverSocket;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Semaphore connectionPermits;
+
+    private final Semaphore commandPermits;
+
+    // Open client sockets, closed when the server stops
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean closed;
+
+    /**
+     * Binds a server with the default limits. Call {@link #start()} to accept clients.
+     *
+     * @param processor the processor running the commands
+     * @param port      the local port, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public CommandServer(CommandProcessor processor, int port) throws IOException {
+        this(processor, port, MAX_CONNECTIONS, MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Binds a server. Call {@link #start()} to accept clients.
+     *
+     * @param processor      the processor running the commands
+     * @param port           the local port, 0 for any free port
+     * @param maxConnections maximum number of open connections
+     * @param maxInFlight    maximum number of commands executing at once
+     * @throws IOException if the port cannot be bound
+     */
+    public CommandServer(CommandProcessor processor, int port, int maxConnections, int maxInFlight) throws IOException {
+        this.processor = processor;
+        this.connectionPermits = new Semaphore(maxConnections);
+        this.commandPermits = new Semaphore(maxInFlight);
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting clients in the background. The accepting thread keeps the JVM alive
+     * until the server is closed.
+     */
+    public void start() {
+        Thread.ofPlatform().name("command-server-accept").start(this::acceptClients);
+    }
+
+    private void acceptClients() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.out.println("Command server stopped accepting clients: " + e.getMessage());
+                }
+                return;
+            }
+            if (!connectionPermits.tryAcquire()) {
+                reject(socket);
+                continue;
+            }
+            clients.add(socket);
+            executor.execute(() -> {
+                try {
+                    serve(socket);
+                } finally {
+                    clients.remove(socket);
+                    connectionPermits.release();
+                }
+            });
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!commandPermits.tryAcquire(PERMIT_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    out.write("ERR busy\n");
+                } else {
+                    try {
+                        if (processor.execute(line, out) == CommandProcessor.Outcome.QUIT) {
+                            break;
+                        }
+                    } finally {
+                        commandPermits.release();
+                    }
+                }
+                // Pipelined commands are answered together
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // The client went away; nothing to answer
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            socket.getOutputStream().write("ERR busy\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // Nothing more can be done for a client we are turning away
+        }
+    }
+
+    /**
+     * Stops accepting clients, disconnects the open ones and waits for their commands to finish.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : clients) {
+            socket.close();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.generation.events;
+
+/**
+ * A change published by a {@link ChangeFeed}. Events carry IDs and values rather than the
+ * mutable model objects, so subscribers can keep and hand them to other threads freely.
+ * <p>
+ * Sequence numbers increase by one per event of a feed, so a subscriber sees from gaps how
+ * many events were dropped for it.
+ */
+public sealed interface ChangeEvent {
+
+    /**
+     * @return position of the event in its feed, starting at 1
+     */
+    long sequence();
+
+    /**
+     * @return ID of the student the event is about
+     */
+    String studentId();
+
+    /**
+     * A student was registered.
+     *
+     * @param sequence  position in the feed
+     * @param studentId the student's ID
+     * @param name      the student's name
+     * @param email     the student's email
+     */
+    record StudentSubscribed(long sequence, String studentId, String name, String email) implements ChangeEvent {
+    }
+
+    /**
+     * A student was enrolled in a course.
+     *
+     * @param sequence   position in the feed
+     * @param studentId  the student's ID
+     * @param courseCode the course code
+     */
+    record StudentEnrolled(long sequence, String studentId, String courseCode) implements ChangeEvent {
+    }
+
+    /**
+     * A grade was recorded, possibly replacing an earlier one.
+     *
+     * @param sequence   position in the feed
+     * @param studentId  the student's ID
+     * @param courseCode the course code
+     * @param grade      the grade
+     */
+    record CourseGraded(long sequence, String studentId, String courseCode, double grade) implements ChangeEvent {
+    }
+
+    /**
+     * A student passed a course for the first time.
+     *
+     * @param sequence   position in the feed
+     * @param studentId  the student's ID
+     * @param courseCode the course code
+     */
+    record CourseApproved(long sequence, String studentId, String courseCode) implements ChangeEvent {
+    }
+}
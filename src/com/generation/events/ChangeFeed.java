@@ -0,0 +1,175 @@
+package com.generation.events;
+
+import com.generation.model.Course;
+import com.generation.model.Student;
+import com.generation.service.MutationListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Publishes the mutations made through the services as {@link ChangeEvent}s to
+ * {@link Flow} subscribers. Register the feed on the registry the services share with
+ * {@code EnrollmentRegistry.addListener}.
+ * <p>
+ * Events are delivered in batches: a batch is published once it holds the configured number
+ * of events, or after the configured delay if that comes first. Each subscriber has a bounded
+ * buffer of batches and is fed on its own virtual thread. Publishing never blocks: when a
+ * subscriber's buffer is full, the batch is dropped for that subscriber only and counted, so
+ * a slow subscriber can never stall the services. Subscribers can tell from the sequence
+ * numbers what they missed.
+ * <p>
+ * Events are numbered under the feed's lock, which the services call into while holding the
+ * changed student's lock, so a registered feed is a point every mutation passes through in
+ * turn. The lock is only held to append to the batch and to hand a full batch over.
+ */
+public class ChangeFeed implements MutationListener, AutoCloseable {
+
+    private final SubmissionPublisher<List<ChangeEvent>> publisher;
+
+    private final int batchSize;
+
+    // Longest time an event waits for its batch to fill; 0 to always wait for a full batch
+    private final long maxDelayMs;
+
+    // Publishes incomplete batches after the delay; started with the first event, as the
+    // constructor must not hand out this feed. Guarded by this feed
+    private ScheduledExecutorService flusher;
+
+    // Events dropped across all subscribers
+    private final LongAdder dropped = new LongAdder();
+
+    // Events of the batch being filled; guarded by this feed
+    private List<ChangeEvent> batch;
+
+    // Sequence number of the last event; guarded by this feed
+    private long sequence;
+
+    // Guarded by this feed
+    private boolean closed;
+
+    /**
+     * Creates a feed that publishes every event on its own, with the default buffer size.
+     */
+    public ChangeFeed() {
+        this(1, 0, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates a feed.
+     *
+     * @param batchSize      number of events published together, 1 to publish each at once
+     * @param maxDelayMs     longest time an event waits for its batch to fill, in milliseconds;
+     *                       0 to always wait for a full batch
+     * @param bufferCapacity maximum number of batches buffered per subscriber
+     */
+    public ChangeFeed(int batchSize, long maxDelayMs, int bufferCapacity) {
+        if (batchSize < 1 || maxDelayMs < 0) {
+            throw new IllegalArgumentException("Invalid batching: " + batchSize + " events, " + maxDelayMs + " ms");
+        }
+        this.batchSize = batchSize;
+        this.maxDelayMs = maxDelayMs;
+        this.batch = new ArrayList<>(batchSize);
+        // Not shut down on close: subscribers still draining their buffers may need new tasks
+        this.publisher = new SubmissionPublisher<>(Executors.newVirtualThreadPerTaskExecutor(), bufferCapacity);
+    }
+
+    /**
+     * Subscribes to the batches published from now on.
+     *
+     * @param subscriber the subscriber
+     */
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * @return number of events dropped because a subscriber's buffer was full, summed over
+     *         all subscribers
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void studentSubscribed(Student student) {
+        publish(seq -> new ChangeEvent.StudentSubscribed(seq, student.getId(), student.getName(), student.getEmail()));
+    }
+
+    @Override
+    public void studentEnrolled(Student student, Course course) {
+        publish(seq -> new ChangeEvent.StudentEnrolled(seq, student.getId(), course.getCode()));
+    }
+
+    @Override
+    public void courseGraded(Student student, String courseCode, double grade) {
+        publish(seq -> new ChangeEvent.CourseGraded(seq, student.getId(), courseCode, grade));
+    }
+
+    @Override
+    public void courseApproved(Student student, Course course) {
+        publish(seq -> new ChangeEvent.CourseApproved(seq, student.getId(), course.getCode()));
+    }
+
+    private synchronized void publish(LongFunction<ChangeEvent> event) {
+        if (closed) {
+            return;
+        }
+        batch.add(event.apply(++sequence));
+        if (batch.size() >= batchSize) {
+            emit();
+        } else if (flusher == null && maxDelayMs > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable ->
+                    Thread.ofPlatform().name("change-feed-flush").daemon(true).unstarted(runnable));
+            flusher.scheduleWithFixedDelay(this::flush, maxDelayMs, maxDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publishes the events of the incomplete batch now.
+     */
+    public synchronized void flush() {
+        if (!closed && !batch.isEmpty()) {
+            emit();
+        }
+    }
+
+    /**
+     * Hands the batch to the subscribers without waiting, under the feed's lock so batches
+     * keep their order.
+     */
+    private void emit() {
+        List<ChangeEvent> events = List.copyOf(batch);
+        batch = new ArrayList<>(batchSize);
+        publisher.offer(events, (_, items) -> {
+            dropped.add(items.size());
+            return false; // Never retry; the services must not wait
+        });
+    }
+
+    /**
+     * Publishes the incomplete batch and completes the subscriptions once their buffers have
+     * been delivered. Later mutations are ignored.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            flush();
+            closed = true;
+            if (flusher != null) {
+                flusher.shutdown();
+            }
+        }
+        publisher.close();
+    }
+}
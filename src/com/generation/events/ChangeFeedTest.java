@@ -0,0 +1,123 @@
+package com.generation.events;
+
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import com.generation.service.EnrollmentRegistry;
+import com.generation.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private EnrollmentRegistry registry;
+    private StudentService studentService;
+    private CourseService courseService;
+
+    /**
+     * Records every batch it receives, requesting them one at a time only when asked to.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<List<ChangeEvent>> {
+
+        final List<List<ChangeEvent>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        final boolean eager;
+        Flow.Subscription subscription;
+
+        RecordingSubscriber(boolean eager) {
+            this.eager = eager;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (eager) {
+                subscription.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(List<ChangeEvent> batch) {
+            batches.add(batch);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Sets up services sharing one registry.
+     */
+    @BeforeEach
+    void setUp() {
+        registry = new EnrollmentRegistry();
+        studentService = new StudentService(registry);
+        courseService = new CourseService(registry);
+    }
+
+    /**
+     * Tests that mutations arrive as typed events in order, grouped into batches of the
+     * configured size, with the incomplete batch published on close.
+     */
+    @Test
+    void testEventsArriveInOrderAndBatched() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber(true);
+        try (ChangeFeed feed = new ChangeFeed(2, 0, 16)) {
+            registry.addListener(feed);
+            feed.subscribe(subscriber);
+            studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+            studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-1"));
+            studentService.gradeStudentCourse("S001", "INTRO-CS-1", 5.0);
+            studentService.gradeStudentCourse("S001", "INTRO-CS-1", 7.5);
+        }
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(2, 2, 1), subscriber.batches.stream().map(List::size).toList());
+        List<ChangeEvent> events = subscriber.batches.stream().flatMap(List::stream).toList();
+        assertEquals(new ChangeEvent.StudentSubscribed(1, "S001", "John Doe", "john@example.com"), events.get(0));
+        assertEquals(new ChangeEvent.StudentEnrolled(2, "S001", "INTRO-CS-1"), events.get(1));
+        assertEquals(new ChangeEvent.CourseGraded(3, "S001", "INTRO-CS-1", 5.0), events.get(2));
+        assertEquals(new ChangeEvent.CourseGraded(4, "S001", "INTRO-CS-1", 7.5), events.get(3));
+        assertEquals(new ChangeEvent.CourseApproved(5, "S001", "INTRO-CS-1"), events.get(4));
+    }
+
+    /**
+     * Tests that a subscriber which stops requesting loses events instead of blocking grading,
+     * and that every event is either delivered or counted as dropped.
+     */
+    @Test
+    void testSlowSubscriberNeverBlocksServices() throws Exception {
+        RecordingSubscriber slow = new RecordingSubscriber(false);
+        ChangeFeed feed = new ChangeFeed(1, 0, 1);
+        try (feed) {
+            registry.addListener(feed);
+            feed.subscribe(slow);
+            studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+            studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-1"));
+            for (int i = 0; i < 1000; i++) {
+                studentService.gradeStudentCourse("S001", "INTRO-CS-1", i % 10);
+            }
+            assertTrue(feed.getDroppedCount() > 900);
+
+            slow.subscription.request(Long.MAX_VALUE);
+        }
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertFalse(slow.batches.isEmpty());
+        // Subscribed, enrolled, 1000 grades and one approval
+        assertEquals(1003, slow.batches.size() + feed.getDroppedCount());
+    }
+}
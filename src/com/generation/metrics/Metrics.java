@@ -0,0 +1,92 @@
+package com.generation.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Metrics of the service operations, shared by all service instances in the JVM.
+ * <p>
+ * Metrics are on unless the JVM is started with {@code -Dstudentgen.metrics=false}. The flag
+ * is a static final constant, so when it is off the JIT compiles {@link #start()} and
+ * {@link OperationMetrics#record} down to nothing and the instrumented paths run as if they
+ * were not instrumented.
+ */
+public final class Metrics {
+
+    // Whether operations are measured; fixed for the life of the JVM
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("studentgen.metrics", "true"));
+
+    public static final OperationMetrics SUBSCRIBE_STUDENT = new OperationMetrics("StudentService", "subscribeStudent");
+
+    public static final OperationMetrics FIND_STUDENT = new OperationMetrics("StudentService", "findStudent");
+
+    public static final OperationMetrics ENROLL_TO_COURSE = new OperationMetrics("StudentService", "enrollToCourse");
+
+    public static final OperationMetrics GRADE_STUDENT_COURSE = new OperationMetrics("StudentService", "gradeStudentCourse");
+
+    public static final OperationMetrics STUDENT_SUMMARY = new OperationMetrics("StudentService", "showSummary");
+
+    public static final OperationMetrics ENROLL_STUDENT = new OperationMetrics("CourseService", "enrollStudent");
+
+    public static final OperationMetrics COURSE_SUMMARY = new OperationMetrics("CourseService", "showSummary");
+
+    private static final List<OperationMetrics> ALL = List.of(SUBSCRIBE_STUDENT, FIND_STUDENT, ENROLL_TO_COURSE,
+            GRADE_STUDENT_COURSE, STUDENT_SUMMARY, ENROLL_STUDENT, COURSE_SUMMARY);
+
+    private Metrics() {
+    }
+
+    /**
+     * Marks the start of a measured call.
+     *
+     * @return the start time to pass to {@link OperationMetrics#record}, 0 when disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @return the current values of every operation
+     */
+    public static List<OperationSnapshot> snapshot() {
+        return ALL.stream().map(OperationMetrics::snapshot).toList();
+    }
+
+    /**
+     * Clears the metrics of every operation.
+     */
+    public static void reset() {
+        ALL.forEach(OperationMetrics::reset);
+    }
+
+    /**
+     * Publishes every operation's metrics on the platform MBean server. Does nothing when
+     * metrics are disabled; calling it again is harmless.
+     *
+     * @throws IllegalStateException if an MBean cannot be registered
+     */
+    public static void registerMBeans() {
+        if (!ENABLED) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationMetrics metrics : ALL) {
+            try {
+                server.registerMBean(metrics, objectName(metrics));
+            } catch (InstanceAlreadyExistsException e) {
+                // Registered by an earlier call
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register metrics of " + metrics.getOperation(), e);
+            }
+        }
+    }
+
+    static ObjectName objectName(OperationMetrics metrics) throws JMException {
+        return new ObjectName("com.generation:type=ServiceMetrics,service=" + metrics.getService()
+                + ",operation=" + metrics.getOperation());
+    }
+}
@@ -0,0 +1,63 @@
+package com.generation.metrics;
+
+import com.generation.model.Student;
+import com.generation.service.StudentService;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    /**
+     * Tests that percentiles are reported within the bucket precision of the exact values.
+     */
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+
+        long[] values = new long[100_000];
+        Random random = new Random(7);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20); // Spread over 1 ns to 0.5 s
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long estimate = histogram.percentile(percentile);
+            assertTrue(estimate >= exact && estimate <= exact + exact / 8 + 1,
+                    "p" + percentile + ": " + estimate + " for " + exact);
+        }
+    }
+
+    /**
+     * Tests that service calls are counted and that the metrics are published as MBeans.
+     */
+    @Test
+    void testServiceCallsAreRecordedAndPublished() throws Exception {
+        StudentService studentService = new StudentService();
+        long subscribed = Metrics.SUBSCRIBE_STUDENT.getCount();
+        long found = Metrics.FIND_STUDENT.getCount();
+
+        studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+        studentService.subscribeStudentIfAbsent(new Student("S002", "Jane Doe", "jane@example.com", null));
+        studentService.findStudent("S001");
+        studentService.findStudent("S003");
+
+        assertEquals(subscribed + 2, Metrics.SUBSCRIBE_STUDENT.getCount());
+        assertEquals(found + 2, Metrics.FIND_STUDENT.snapshot().count());
+        assertTrue(Metrics.FIND_STUDENT.getMaxNanos() >= Metrics.FIND_STUDENT.getP50Nanos());
+
+        Metrics.registerMBeans();
+        Metrics.registerMBeans();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(Metrics.objectName(Metrics.FIND_STUDENT)));
+        assertEquals(Metrics.FIND_STUDENT.getCount(), server.getAttribute(Metrics.objectName(Metrics.FIND_STUDENT), "Count"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.generation.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count and latency distribution of one service operation. Counters are striped
+ * ({@link LongAdder}), so threads recording at the same time do not contend on one field.
+ * Published over JMX through {@link OperationMetricsMXBean}.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String service;
+
+    private final String operation;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    OperationMetrics(String service, String operation) {
+        this.service = service;
+        this.operation = operation;
+    }
+
+    /**
+     * Records one call that started at the given time. Does nothing when metrics are disabled.
+     *
+     * @param startNanos the value returned by {@link Metrics#start()} when the call began
+     */
+    public void record(long startNanos) {
+        if (!Metrics.ENABLED) {
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram.record(nanos);
+    }
+
+    /**
+     * @return the current values as an immutable snapshot
+     */
+    public OperationSnapshot snapshot() {
+        long calls = count.sum();
+        return new OperationSnapshot(service, operation, calls,
+                calls == 0 ? 0 : totalNanos.sum() / calls,
+                histogram.percentile(50), histogram.percentile(90), histogram.percentile(99),
+                maxNanos.get());
+    }
+
+    /**
+     * Clears all counters.
+     */
+    @Override
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        histogram.reset();
+    }
+
+    @Override
+    public String getService() {
+        return service;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getMeanNanos() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : totalNanos.sum() / calls;
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return histogram.percentile(50);
+    }
+
+    @Override
+    public long getP90Nanos() {
+        return histogram.percentile(90);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return histogram.percentile(99);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+}
@@ -0,0 +1,27 @@
+package com.generation.metrics;
+
+/**
+ * JMX view of one service operation, registered as
+ * {@code com.generation:type=ServiceMetrics,service=<service>,operation=<operation>}.
+ * Latencies are in nanoseconds; percentiles are accurate to within 12.5%.
+ */
+public interface OperationMetricsMXBean {
+
+    String getService();
+
+    String getOperation();
+
+    long getCount();
+
+    long getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getMaxNanos();
+
+    void reset();
+}
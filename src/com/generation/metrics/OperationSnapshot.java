@@ -0,0 +1,17 @@
+package com.generation.metrics;
+
+/**
+ * Values of one operation's metrics at a point in time. Latencies are in nanoseconds.
+ *
+ * @param service    the service class name
+ * @param operation  the method name
+ * @param count      number of calls
+ * @param meanNanos  mean latency
+ * @param p50Nanos   median latency
+ * @param p90Nanos   90th percentile latency
+ * @param p99Nanos   99th percentile latency
+ * @param maxNanos   highest latency
+ */
+public record OperationSnapshot(String service, String operation, long count, long meanNanos,
+                                long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+}
@@ -1,11 +1,19 @@
 package com.generation.model;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * The Course class represents a course within a specific module,
  * containing information like course code, name, credit value, and module association.
  */
 public class Course {
 
+    // Source of the dense indexes handed out to courses as they are created
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    // Dense number identifying this course, used to key primitive per-course storage
+    private final int index = NEXT_INDEX.getAndIncrement();
+
     // Unique identifier for the course
     private final String code;
 
@@ -33,6 +41,13 @@ public class Course {
         this.module = module;
     }
 
+    /**
+     * @return the dense index of this course, unique among all courses created
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * @return the unique course code
      */
@@ -16,6 +16,13 @@ public interface Evaluation
      */
     double getAverage();
 
+    /**
+     * Returns the average grade weighted by the credits of each graded course.
+     *
+     * @return the credit-weighted average grade as a double
+     */
+    double getWeightedAverage();
+
     /**
      * Returns a list of courses that have been approved (i.e., passed).
      *
@@ -0,0 +1,149 @@
+package com.generation.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primitive storage for the grades and approvals of one student. Each course the student is
+ * graded or approved in gets a slot; slots are found through an open-addressing table keyed
+ * by {@link Course#getIndex()}, grades live in a parallel {@code double[]} (NaN when not
+ * graded) and approvals in a bitset over the slots.
+ * <p>
+ * One thread at a time may modify a book, e.g. under a lock held by the owner, while any
+ * thread reads it without a lock. Each change ends with a release store: a new slot is
+ * filled in before its table entry and the size publish it, and grades and approval words
+ * are written and read with release/acquire semantics. A reader therefore never sees a
+ * half-written slot or a torn grade. When the book is full the owner replaces it with a
+ * larger {@link #grow() copy}, the only time a change copies the book.
+ */
+final class GradeBook {
+
+    private static final VarHandle TABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final VarHandle GRADES = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private static final VarHandle APPROVED = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Course[] courses;
+
+    private final double[] grades;
+
+    private final long[] approved;
+
+    // Slot + 1 of each course, indexed by the hashed course index; 0 marks an empty entry
+    private final int[] table;
+
+    // Number of filled slots; written after the slot it counts
+    private volatile int size;
+
+    GradeBook(int capacity) {
+        courses = new Course[capacity];
+        grades = new double[capacity];
+        approved = new long[(capacity + 63) >>> 6];
+        table = new int[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1];
+    }
+
+    /**
+     * @return a copy with twice the capacity, to be published in place of this book
+     */
+    GradeBook grow() {
+        GradeBook copy = new GradeBook(courses.length * 2);
+        for (int slot = 0; slot < size; slot++) {
+            int added = copy.add(courses[slot]);
+            copy.setGrade(added, grade(slot));
+            if (isApproved(slot)) {
+                copy.approve(added);
+            }
+        }
+        return copy;
+    }
+
+    boolean isFull() {
+        return size == courses.length;
+    }
+
+    /**
+     * @return the slot of the course, or -1 if it has none
+     */
+    int find(Course course) {
+        int mask = table.length - 1;
+        for (int i = hash(course.getIndex()) & mask; ; i = (i + 1) & mask) {
+            int entry = (int) TABLE.getAcquire(table, i);
+            if (entry == 0) {
+                return -1;
+            }
+            if (courses[entry - 1] == course) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Finds a slot by course code with a linear scan, for courses the owner has no reference to.
+     *
+     * @return the slot of the course, or -1 if it has none
+     */
+    int find(String courseCode) {
+        int filled = size;
+        for (int slot = 0; slot < filled; slot++) {
+            if (courses[slot].getCode().equals(courseCode)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a slot for a course that has none yet. The book must not be {@link #isFull full}.
+     *
+     * @return the new slot
+     */
+    int add(Course course) {
+        int slot = size;
+        courses[slot] = course;
+        grades[slot] = Double.NaN;
+        int mask = table.length - 1;
+        int i = hash(course.getIndex()) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        TABLE.setRelease(table, i, slot + 1); // Publishes the filled slot to find(Course)
+        size = slot + 1;
+        return slot;
+    }
+
+    double grade(int slot) {
+        return (double) GRADES.getAcquire(grades, slot);
+    }
+
+    void setGrade(int slot, double grade) {
+        GRADES.setRelease(grades, slot, grade);
+    }
+
+    boolean isApproved(int slot) {
+        return ((long) APPROVED.getAcquire(approved, slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    void approve(int slot) {
+        APPROVED.setRelease(approved, slot >>> 6, approved[slot >>> 6] | 1L << slot);
+    }
+
+    /**
+     * @return the approved courses in slot order
+     */
+    List<Course> approvedCourses() {
+        List<Course> result = new ArrayList<>();
+        for (int word = 0; word < approved.length; word++) {
+            for (long bits = (long) APPROVED.getAcquire(approved, word); bits != 0; bits &= bits - 1) {
+                result.add(courses[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+            }
+        }
+        return result;
+    }
+
+    private static int hash(int index) {
+        return index * 0x9E3779B9 >>> 16 ^ index;
+    }
+}
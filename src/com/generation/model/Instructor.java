@@ -1,8 +1,8 @@
 package com.generation.model;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Instructor
         extends Person
@@ -10,9 +10,9 @@ public class Instructor
 
     private int experienceMonths;
 
-    private final List<Course> teachingCourses = new ArrayList<>();
+    private final List<Course> teachingCourses = new CopyOnWriteArrayList<>();
 
-    protected Instructor( String id, String name, String email, Date birthDate )
+    public Instructor( String id, String name, String email, Date birthDate )
     {
         super( id, name, email, birthDate );
     }
@@ -26,4 +26,50 @@ public class Instructor
     {
         this.experienceMonths = experienceMonths;
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds a course to the courses taught by the instructor.
+     *
+     * @param course the course
+     * @return true if added, false if the instructor already teaches a course with that code
+     */
+    public boolean assignCourse( Course course )
+    {
+        for ( Course taught : teachingCourses )
+        {
+            if ( taught.getCode().equals( course.getCode() ) )
+            {
+                return false;
+            }
+        }
+        teachingCourses.add( course );
+        return true;
+    }
+
+    /**
+     * Removes a course from the courses taught by the instructor.
+     *
+     * @param courseCode the course code
+     * @return the removed course, or null if the instructor does not teach it
+     */
+    public Course unassignCourse( String courseCode )
+    {
+        for ( Course taught : teachingCourses )
+        {
+            if ( taught.getCode().equals( courseCode ) )
+            {
+                teachingCourses.remove( taught );
+                return taught;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return read-only snapshot of the courses taught by the instructor, in assignment order
+     */
+    public List<Course> getTeachingCourses()
+    {
+        return List.copyOf( teachingCourses );
+    }
+}
@@ -1,10 +1,31 @@
 package com.generation.model;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * A group of courses. A module may require other modules to be completed first; the
+ * prerequisite graph is kept acyclic, and the transitive prerequisites of each module are
+ * cached as a bitset over module indexes until the graph changes.
+ */
 public class Module
 {
+    // Source of the dense indexes handed out to modules as they are created
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    // Guards every change of the prerequisite graph and the rebuild of cached closures
+    private static final Object GRAPH_LOCK = new Object();
+
+    // Bumped on every change of the prerequisite graph, invalidating all cached closures
+    private static volatile long graphVersion;
+
+    private final int index = NEXT_INDEX.getAndIncrement();
+
     private final String code;
 
     private final String name;
@@ -13,6 +34,18 @@ public class Module
 
     private final Map<String, Module> prerequisites = new HashMap<>();
 
+    private volatile Closure closure;
+
+    // Set once the prerequisites are final, e.g. for modules of a shared catalog
+    private volatile boolean frozen;
+
+    /**
+     * Transitive prerequisites as of one version of the graph.
+     */
+    private record Closure( long version, BitSet indexes, List<Module> modules )
+    {
+    }
+
     public Module( String code, String name, String description )
     {
         this.code = code;
@@ -20,11 +53,100 @@ public class Module
         this.description = description;
     }
 
+    /**
+     * Adds a module that must be completed before this one.
+     *
+     * @param module the prerequisite
+     * @throws IllegalArgumentException if this module is already a prerequisite of it,
+     *                                  directly or transitively
+     * @throws IllegalStateException    if this module is frozen
+     */
     public void addPrerequisite( Module module )
     {
-        prerequisites.put( module.code, module );
+        synchronized ( GRAPH_LOCK )
+        {
+            if ( frozen )
+            {
+                throw new IllegalStateException( "Prerequisites of " + code + " are frozen" );
+            }
+            if ( module == this || module.closure().indexes().get( index ) )
+            {
+                throw new IllegalArgumentException( "Prerequisite " + module.code + " of " + code + " would create a cycle" );
+            }
+            prerequisites.put( module.code, module );
+            graphVersion++;
+        }
+    }
+
+    /**
+     * Makes the prerequisites of this module final; later calls to {@link #addPrerequisite}
+     * fail. Modules shared by several services are frozen so none of them can change the
+     * graph of the others.
+     */
+    public void freeze()
+    {
+        frozen = true;
+    }
+
+    /**
+     * @return true if the prerequisites of this module can no longer change
+     */
+    public boolean isFrozen()
+    {
+        return frozen;
     }
 
+    /**
+     * @return the indexes of all modules that must be completed before this one; must not be modified
+     */
+    public BitSet getPrerequisiteIndexes()
+    {
+        return closure().indexes();
+    }
+
+    /**
+     * @return all modules that must be completed before this one, nearest first
+     */
+    public List<Module> getAllPrerequisites()
+    {
+        return closure().modules();
+    }
+
+    private Closure closure()
+    {
+        Closure cached = closure;
+        if ( cached != null && cached.version() == graphVersion )
+        {
+            return cached;
+        }
+        synchronized ( GRAPH_LOCK )
+        {
+            BitSet indexes = new BitSet();
+            List<Module> modules = new ArrayList<>();
+            List<Module> toVisit = new ArrayList<>( prerequisites.values() );
+            for ( int i = 0; i < toVisit.size(); i++ )
+            {
+                Module module = toVisit.get( i );
+                if ( !indexes.get( module.index ) )
+                {
+                    indexes.set( module.index );
+                    modules.add( module );
+                    toVisit.addAll( module.prerequisites.values() );
+                }
+            }
+            cached = new Closure( graphVersion, indexes, Collections.unmodifiableList( modules ) );
+            closure = cached;
+            return cached;
+        }
+    }
+
+    /**
+     * @return the dense index of this module, unique among all modules created
+     */
+    public int getIndex()
+    {
+        return index;
+    }
 
     public String getCode()
     {
@@ -43,7 +165,7 @@ public class Module
 
     public Map<String, Module> getPrerequisites()
     {
-        return prerequisites;
+        return Collections.unmodifiableMap( prerequisites );
     }
 
     @Override
@@ -51,4 +173,4 @@ public class Module
     {
         return "Module{" + "name='" + name + '\'' + '}';
     }
-}
\ No newline at end of file
+}
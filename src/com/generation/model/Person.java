@@ -1,6 +1,7 @@
 package com.generation.model;
 
 import java.util.Date;
+import java.util.Objects;
 
 abstract public class Person
 {
@@ -40,6 +41,26 @@ abstract public class Person
         return birthDate;
     }
 
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        return Objects.equals( id, ( (Person) o ).id );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hashCode( id );
+    }
+
     @Override
     public String toString()
     {
@@ -1,28 +1,59 @@
 package com.generation.model;
 
-import java.util.ArrayList;
+import com.generation.utils.AppendOnlyList;
+import com.generation.utils.ReportWriter;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a student, extending from the Person class and implementing Evaluation.
  * A student can enroll in courses, receive grades, and track approved/passed courses.
+ * <p>
+ * Read methods are safe to call from any thread while the student is being modified.
+ * Mutations ({@link #enrollToCourse}, {@link #gradeCourse}) must not run concurrently for the
+ * same student; the services serialize them with a lock striped on the student ID.
  */
 public class Student extends Person implements Evaluation {
 
+    /**
+     * Lowest grade that approves a course.
+     */
+    public static final double PASSING_GRADE = 6.0;
+
     // Average grade across all graded courses
-    private double average;
+    private volatile double average;
+
+    // Credit-weighted average grade across all graded courses
+    private volatile double weightedAverage;
 
-    // List of currently enrolled courses
-    private final List<Course> courses = new ArrayList<>();
+    // Running aggregates over the grades, kept in step with every grade change
+    private double gradeSum;
+    private double weightedGradeSum;
+    private int gradeCount;
+    private int gradedCredits;
 
-    // Map of approved (passed) courses by course code
-    private final Map<String, Course> approvedCourses = new HashMap<>();
+    // Currently enrolled courses by course code
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
 
-    // Map of grades by course code
-    private final Map<String, Double> grades = new HashMap<>();
+    // Enrolled courses in enrollment order
+    private final AppendOnlyList<Course> enrollmentOrder = new AppendOnlyList<>(4);
+
+    // Grades and approved (passed) courses in primitive arrays keyed by course index;
+    // modified in place and replaced by a larger copy when full
+    private volatile GradeBook gradeBook = new GradeBook(4);
+
+    // Read-only snapshot of the approved courses, rebuilt only when a course is newly approved
+    private volatile List<Course> approvedCourses = List.of();
+
+    // Indexes of the modules the student has completed; copy-on-write, as a module is
+    // completed at most once, and a published set is never modified again
+    private volatile BitSet completedModules = new BitSet();
 
     /**
      * Constructs a new Student object.
@@ -43,20 +74,108 @@ public class Student extends Person implements Evaluation {
      * @return true if enrollment is successful, false if already enrolled
      */
     public boolean enrollToCourse(Course course) {
-        if (isAttendingCourse(course.getCode())) {
+        if (courses.containsKey(course.getCode())) {
             return false;  // already enrolled
         }
-        courses.add(course);
+        courses.put(course.getCode(), course);
+        enrollmentOrder.add(course);
         return true;
     }
 
+    /**
+     * Returns the courses the student is enrolled in, in enrollment order.
+     *
+     * @return read-only snapshot of the enrolled courses
+     */
+    public Collection<Course> getEnrolledCourses() {
+        return enrollmentOrder.snapshot();
+    }
+
+    /**
+     * Returns an enrolled course by code.
+     *
+     * @param courseCode the course code
+     * @return the course, or null if the student is not enrolled in it
+     */
+    public Course getEnrolledCourse(String courseCode) {
+        return courses.get(courseCode);
+    }
+
     /**
      * Registers a course as approved for the student.
      *
      * @param course the course to register as approved
      */
     public void registerApprovedCourse(Course course) {
-        approvedCourses.put(course.getCode(), course);
+        int slot = slotFor(course);
+        GradeBook book = gradeBook;
+        book.approve(slot);
+        approvedCourses = Collections.unmodifiableList(book.approvedCourses());
+    }
+
+    /**
+     * Finds the slot of a course by code; courses approved without an enrollment are only
+     * reachable through the book itself.
+     */
+    private int slotOf(GradeBook book, String courseCode) {
+        Course course = courses.get(courseCode);
+        return course != null ? book.find(course) : book.find(courseCode);
+    }
+
+    /**
+     * Returns the slot of a course in the book, adding one if needed and first replacing a
+     * full book with a larger one.
+     */
+    private int slotFor(Course course) {
+        GradeBook book = gradeBook;
+        int slot = book.find(course);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (book.isFull()) {
+            book = book.grow();
+            gradeBook = book; // Publish the larger book to readers
+        }
+        return book.add(course);
+    }
+
+    /**
+     * Marks a module as completed by the student.
+     *
+     * @param module the completed module
+     */
+    public void completeModule(Module module) {
+        BitSet updated = (BitSet) completedModules.clone();
+        updated.set(module.getIndex());
+        completedModules = updated;
+    }
+
+    /**
+     * @param module the module
+     * @return true if the student has completed the module
+     */
+    public boolean hasCompletedModule(Module module) {
+        return completedModules.get(module.getIndex());
+    }
+
+    /**
+     * @return indexes of the modules the student has completed, see {@link Module#getIndex()};
+     *         a shared set that is never modified again and must not be modified by the caller
+     */
+    public BitSet getCompletedModules() {
+        return completedModules;
+    }
+
+    /**
+     * Returns the modules a student still has to complete before taking courses of a module.
+     *
+     * @param module the module to take courses of
+     * @return indexes of the missing prerequisite modules, see {@link Module#getIndex()}
+     */
+    public BitSet findMissingPrerequisites(Module module) {
+        BitSet missing = (BitSet) module.getPrerequisiteIndexes().clone();
+        missing.andNot(completedModules);
+        return missing;
     }
 
     /**
@@ -66,16 +185,18 @@ public class Student extends Person implements Evaluation {
      * @return true if the course is approved, false otherwise
      */
     public boolean isCourseApproved(String courseCode) {
-        return approvedCourses.containsKey(courseCode);
+        GradeBook book = gradeBook;
+        int slot = slotOf(book, courseCode);
+        return slot >= 0 && book.isApproved(slot);
     }
 
     /**
      * Returns a list of all approved (passed) courses.
      *
-     * @return list of approved courses
+     * @return read-only snapshot of the approved courses
      */
     public List<Course> findPassedCourses() {
-        return new ArrayList<>(approvedCourses.values());
+        return approvedCourses;
     }
 
     /**
@@ -85,55 +206,74 @@ public class Student extends Person implements Evaluation {
      * @return true if enrolled in the course, false otherwise
      */
     public boolean isAttendingCourse(String courseCode) {
-        for (Course c : courses) {
-            if (c.getCode().equals(courseCode)) {
-                return true;
-            }
-        }
-        return false;
+        return courses.containsKey(courseCode);
     }
 
     /**
-     * Grades a course for the student. If the grade is >= 6.0, the course is marked as approved.
-     * Updates the student's average grade after grading.
+     * Grades a course for the student. If the grade is at least {@link #PASSING_GRADE}, the
+     * course is marked as approved.
+     * Updates the student's average grades after grading; a previous grade for the same course
+     * is replaced.
      *
      * @param courseCode the course code to grade
      * @param grade      the grade to assign
+     * @return true if the grade was recorded, false if the student is not attending the course
      */
-    public void gradeCourse(String courseCode, double grade) {
-        if (!isAttendingCourse(courseCode)) {
+    public boolean gradeCourse(String courseCode, double grade) {
+        Course course = courses.get(courseCode);
+        if (course == null) {
             System.out.println("Student is not attending course: " + courseCode);
-            return;
+            return false;
         }
-        grades.put(courseCode, grade);
-        if (grade >= 6.0) {
-            Course courseToApprove = null;
-            for (Course c : courses) {
-                if (c.getCode().equals(courseCode)) {
-                    courseToApprove = c;
-                    break;
-                }
-            }
-            if (courseToApprove != null && !isCourseApproved(courseCode)) {
-                registerApprovedCourse(courseToApprove);
-            }
+        int slot = slotFor(course);
+        GradeBook book = gradeBook;
+        double previous = book.grade(slot);
+        book.setGrade(slot, grade);
+        boolean newlyApproved = grade >= PASSING_GRADE && !book.isApproved(slot);
+        if (newlyApproved) {
+            book.approve(slot);
         }
-        updateAverage();
+        updateAverage(course, previous, grade);
+        if (newlyApproved) {
+            approvedCourses = Collections.unmodifiableList(book.approvedCourses());
+        }
+        return true;
     }
 
     /**
-     * Updates the average grade based on all graded courses.
+     * Updates the running aggregates for a single grade change and recomputes both averages
+     * from them, without walking the grades map.
+     *
+     * @param course   the graded course
+     * @param previous the grade it replaces, or NaN if the course had no grade yet
+     * @param grade    the new grade
      */
-    private void updateAverage() {
-        if (grades.isEmpty()) {
-            average = 0.0;
-            return;
-        }
-        double sum = 0;
-        for (double g : grades.values()) {
-            sum += g;
+    private void updateAverage(Course course, double previous, double grade) {
+        int credits = course.getCredits();
+        if (!Double.isNaN(previous)) {
+            gradeSum -= previous;
+            weightedGradeSum -= previous * credits;
+        } else {
+            gradeCount++;
+            gradedCredits += credits;
         }
-        average = sum / grades.size();
+        gradeSum += grade;
+        weightedGradeSum += grade * credits;
+
+        average = gradeSum / gradeCount;
+        weightedAverage = gradedCredits > 0 ? weightedGradeSum / gradedCredits : 0.0;
+    }
+
+    /**
+     * Returns the grade recorded for a course.
+     *
+     * @param courseCode the course code
+     * @return the grade, or NaN if the course has not been graded
+     */
+    public double getGrade(String courseCode) {
+        GradeBook book = gradeBook;
+        int slot = slotOf(book, courseCode);
+        return slot >= 0 ? book.grade(slot) : Double.NaN;
     }
 
     /**
@@ -146,14 +286,24 @@ public class Student extends Person implements Evaluation {
         return average;
     }
 
+    /**
+     * Returns the student's average grade weighted by course credits.
+     *
+     * @return credit-weighted average grade
+     */
+    @Override
+    public double getWeightedAverage() {
+        return weightedAverage;
+    }
+
     /**
      * Returns a list of the student's approved courses.
      *
-     * @return list of approved courses
+     * @return read-only snapshot of the approved courses
      */
     @Override
     public List<Course> getApprovedCourses() {
-        return new ArrayList<>(approvedCourses.values());
+        return approvedCourses;
     }
 
     /**
@@ -163,7 +313,11 @@ public class Student extends Person implements Evaluation {
      */
     @Override
     public String toString() {
-        return "Student {" + super.toString() + ", average=" + String.format("%.2f", average) + ", approvedCourses=" + approvedCourses.keySet() + "}";
+        return "Student {" + super.toString() + ", average=" + ReportWriter.formatFixed(average, 2) + ", approvedCourses=" + approvedCodes() + "}";
+    }
+
+    private List<String> approvedCodes() {
+        return approvedCourses.stream().map(Course::getCode).toList();
     }
 }
 
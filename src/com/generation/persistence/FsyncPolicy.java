@@ -0,0 +1,26 @@
+package com.generation.persistence;
+
+/**
+ * When journal writes are forced to stable storage.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every mutation is durable before the service call returns. The call waits for the sync
+     * after releasing the student's lock. Writers that arrive while a sync is in progress are
+     * committed together by the next sync (group commit).
+     */
+    ALWAYS,
+
+    /**
+     * Records are written and synced by a background task at a fixed interval; a crash can
+     * lose at most the last interval of mutations.
+     */
+    INTERVAL,
+
+    /**
+     * Records are handed to the operating system when the buffer fills and on close, and
+     * never explicitly synced.
+     */
+    NEVER
+}
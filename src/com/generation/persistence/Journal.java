@@ -0,0 +1,542 @@
+package com.generation.persistence;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import com.generation.service.MutationListener;
+import com.generation.service.StudentService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead journal of service mutations.
+ * <p>
+ * Registered as a {@link MutationListener} on the services' EnrollmentRegistry, it records
+ * student subscriptions, course registrations, enrollments and grades. Each record is
+ * {@code [payload length][CRC32C of type and payload][type][payload]}. Records are collected
+ * in memory and written by whichever caller needs them on disk first, so concurrent writers
+ * share one write and one fsync (group commit); see {@link FsyncPolicy}.
+ * <p>
+ * On open, the file is checked record by record and a torn or corrupt tail left by a crash
+ * is cut off. {@link #replay} then rebuilds the services from the log; it must run before the
+ * journal is registered as a listener. A subscription record replaces a registered student
+ * with the same ID, as the recorded subscription did; already registered courses are kept,
+ * existing enrollments are skipped and grades are simply set again.
+ * <p>
+ * Records are appended by the listener callbacks, after the services have applied the change
+ * in memory and while they hold the student's lock. Under {@link FsyncPolicy#ALWAYS} the
+ * callbacks only queue the record; the thread waits for it to be synced in
+ * {@link #mutationsReleased()}, after the services released the lock, so students sharing
+ * the lock stripe never wait for the disk on each other's behalf. If writing the journal
+ * fails, the callback or {@link #mutationsReleased()} throws an UncheckedIOException to the
+ * caller of the service method, but the change stays applied in memory and is missing from
+ * the log. The journal then stays failed: {@link #sync()}, {@link #close()} and every
+ * later append that needs a write report the same error. The in-memory state is still
+ * complete, so saving a snapshot is the way to keep it.
+ */
+public class Journal implements MutationListener, Closeable {
+
+    static final byte STUDENT_SUBSCRIBED = 1;
+    static final byte COURSE_REGISTERED = 2;
+    static final byte STUDENT_ENROLLED = 3;
+    static final byte COURSE_GRADED = 4;
+
+    // Payload length, checksum and type
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + 1;
+
+    // Pending bytes that trigger a write when the policy does not write every record
+    private static final int WRITE_THRESHOLD = 64 * 1024;
+
+    // Size of each mapped region when reading the file back
+    private static final int READ_WINDOW = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final FsyncPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Signalled whenever a write completes
+    private final Condition written = lock.newCondition();
+
+    private final CRC32C checksum = new CRC32C();
+
+    // Records not yet written; swapped with the spare buffer while a write is in progress
+    private ByteBuffer pending = ByteBuffer.allocate(2 * WRITE_THRESHOLD);
+    private ByteBuffer spare = ByteBuffer.allocate(2 * WRITE_THRESHOLD);
+
+    // Sequence numbers of the last record appended, written and synced
+    private long appendedSeq;
+    private long writtenSeq;
+    private long syncedSeq;
+
+    // File offset where the next written buffer goes
+    private long writtenLength;
+
+    // Size of the buffer currently being written
+    private long inFlightBytes;
+
+    private boolean writing;
+
+    private boolean closed;
+
+    private IOException failure;
+
+    // Interval of background syncs for FsyncPolicy.INTERVAL, in milliseconds
+    private final long syncIntervalMs;
+
+    // Last record each thread appended under FsyncPolicy.ALWAYS and has not waited for yet
+    private final ThreadLocal<long[]> awaitedSeq = ThreadLocal.withInitial(() -> new long[1]);
+
+    // Runs the background syncs; started with the first record, as the constructor must not
+    // hand out this journal. Guarded by lock
+    private ScheduledExecutorService syncer;
+
+    /**
+     * Opens or creates a journal, cutting off any incomplete or corrupt tail.
+     *
+     * @param file           the journal file
+     * @param policy         when writes are forced to disk
+     * @param syncIntervalMs interval of background syncs for {@link FsyncPolicy#INTERVAL}
+     * @throws IOException if the file cannot be opened
+     */
+    public Journal(Path file, FsyncPolicy policy, long syncIntervalMs) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.policy = policy;
+        this.syncIntervalMs = syncIntervalMs;
+
+        writtenLength = forEachRecord(0, channel.size(), null);
+        if (writtenLength < channel.size()) {
+            channel.truncate(writtenLength);
+            channel.force(true);
+        }
+        channel.position(writtenLength);
+    }
+
+    /**
+     * Replays the whole journal into the services.
+     *
+     * @return number of records replayed
+     * @throws IOException if the file cannot be read
+     */
+    public long replay(StudentService studentService, CourseService courseService) throws IOException {
+        return replay(0, studentService, courseService);
+    }
+
+    /**
+     * Checks whether an offset, e.g. one recorded in a snapshot, still marks the start of a
+     * valid run of records up to the end of the journal. It does not once the journal was
+     * deleted, recreated or truncated below the offset, or cut and regrown past it.
+     *
+     * @param offset the file offset
+     * @return true if replaying from the offset reads every record after it
+     * @throws IOException if the file cannot be read
+     */
+    public boolean isRecordBoundary(long offset) throws IOException {
+        return offset >= 0 && offset <= writtenLength && forEachRecord(offset, writtenLength, null) == writtenLength;
+    }
+
+    /**
+     * Replays the journal from an offset, e.g. the one recorded in a snapshot. If the offset
+     * is not a {@link #isRecordBoundary record boundary} any more, the whole journal is
+     * replayed instead, so records appended after the journal was replaced are not skipped.
+     *
+     * @param fromOffset file offset of the first record to replay
+     * @return number of records replayed
+     * @throws IOException if the file cannot be read
+     */
+    public long replay(long fromOffset, StudentService studentService, CourseService courseService) throws IOException {
+        if (!isRecordBoundary(fromOffset)) {
+            fromOffset = 0; // The journal was replaced or cut since the offset was taken
+        }
+        long[] count = new long[1];
+        // Consecutive course records are registered together, building the catalog once
+        Map<String, Course> pendingCourses = new LinkedHashMap<>();
+        Map<String, Module> pendingModules = new HashMap<>();
+        forEachRecord(fromOffset, writtenLength, (type, payload) -> {
+            if (type == COURSE_REGISTERED) {
+                readCourse(payload, courseService, pendingCourses, pendingModules);
+            } else {
+                registerPending(courseService, pendingCourses, pendingModules);
+                apply(type, payload, studentService, courseService);
+            }
+            count[0]++;
+        });
+        registerPending(courseService, pendingCourses, pendingModules);
+        return count[0];
+    }
+
+    /**
+     * Returns the logical end of the journal, including records not yet written to the file.
+     * Replaying from this offset later covers every mutation recorded after this call.
+     *
+     * @return the offset the next record will be written at
+     */
+    public long position() {
+        lock.lock();
+        try {
+            return writtenLength + inFlightBytes + pending.position();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void studentSubscribed(Student student) {
+        byte[] id = RecordCodec.utf8(student.getId());
+        byte[] name = RecordCodec.utf8(student.getName());
+        byte[] email = RecordCodec.utf8(student.getEmail());
+        int size = RecordCodec.sizeOf(id) + RecordCodec.sizeOf(name) + RecordCodec.sizeOf(email) + Long.BYTES;
+        append(STUDENT_SUBSCRIBED, size, buffer -> {
+            RecordCodec.putString(buffer, id);
+            RecordCodec.putString(buffer, name);
+            RecordCodec.putString(buffer, email);
+            buffer.putLong(RecordCodec.dateToLong(student.getBirthDate()));
+        });
+    }
+
+    @Override
+    public void courseRegistered(Course course) {
+        Module module = course.getModule();
+        byte[] code = RecordCodec.utf8(course.getCode());
+        byte[] name = RecordCodec.utf8(course.getName());
+        byte[] moduleCode = RecordCodec.utf8(module == null ? null : module.getCode());
+        byte[] moduleName = RecordCodec.utf8(module == null ? null : module.getName());
+        byte[] moduleDescription = RecordCodec.utf8(module == null ? null : module.getDescription());
+        int size = RecordCodec.sizeOf(code) + RecordCodec.sizeOf(name) + Integer.BYTES
+                + RecordCodec.sizeOf(moduleCode) + RecordCodec.sizeOf(moduleName) + RecordCodec.sizeOf(moduleDescription);
+        append(COURSE_REGISTERED, size, buffer -> {
+            RecordCodec.putString(buffer, code);
+            RecordCodec.putString(buffer, name);
+            buffer.putInt(course.getCredits());
+            RecordCodec.putString(buffer, moduleCode);
+            RecordCodec.putString(buffer, moduleName);
+            RecordCodec.putString(buffer, moduleDescription);
+        });
+    }
+
+    @Override
+    public void studentEnrolled(Student student, Course course) {
+        byte[] studentId = RecordCodec.utf8(student.getId());
+        byte[] courseCode = RecordCodec.utf8(course.getCode());
+        append(STUDENT_ENROLLED, RecordCodec.sizeOf(studentId) + RecordCodec.sizeOf(courseCode), buffer -> {
+            RecordCodec.putString(buffer, studentId);
+            RecordCodec.putString(buffer, courseCode);
+        });
+    }
+
+    @Override
+    public void courseGraded(Student student, String courseCode, double grade) {
+        byte[] studentId = RecordCodec.utf8(student.getId());
+        byte[] code = RecordCodec.utf8(courseCode);
+        append(COURSE_GRADED, RecordCodec.sizeOf(studentId) + RecordCodec.sizeOf(code) + Double.BYTES, buffer -> {
+            RecordCodec.putString(buffer, studentId);
+            RecordCodec.putString(buffer, code);
+            buffer.putDouble(grade);
+        });
+    }
+
+    /**
+     * Under {@link FsyncPolicy#ALWAYS}, waits until the records the calling thread appended
+     * are synced, sharing the sync with every other thread waiting at the same time.
+     */
+    @Override
+    public void mutationsReleased() {
+        long[] awaited = awaitedSeq.get();
+        long seq = awaited[0];
+        if (seq == 0) {
+            return;
+        }
+        awaited[0] = 0;
+        lock.lock();
+        try {
+            awaitWritten(seq, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and syncs every record appended so far.
+     *
+     * @throws IOException if writing fails
+     */
+    public void sync() throws IOException {
+        lock.lock();
+        try {
+            awaitWritten(appendedSeq, true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes outstanding records, syncing them unless the policy is {@link FsyncPolicy#NEVER},
+     * and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (syncer != null) {
+                syncer.shutdown();
+            }
+            if (closed) {
+                return;
+            }
+            awaitWritten(appendedSeq, policy != FsyncPolicy.NEVER);
+            closed = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            lock.unlock();
+            if (closed) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Starts the background syncs of {@link FsyncPolicy#INTERVAL}. Must be called with the
+     * lock held.
+     */
+    private void startSyncer() {
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            // Remembered in failure and reported to the next writer
+        }
+    }
+
+    /**
+     * Encodes one record into the pending buffer and, depending on the policy, writes it.
+     */
+    private void append(byte type, int payloadSize, Consumer<ByteBuffer> payload) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (syncer == null && policy == FsyncPolicy.INTERVAL) {
+                startSyncer();
+            }
+            if (pending.remaining() < HEADER_SIZE + payloadSize) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * pending.capacity(), pending.position() + HEADER_SIZE + payloadSize));
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            int start = pending.position();
+            pending.putInt(payloadSize).putInt(0).put(type);
+            payload.accept(pending);
+            checksum.reset();
+            checksum.update(pending.slice(start + Integer.BYTES * 2, 1 + payloadSize));
+            pending.putInt(start + Integer.BYTES, (int) checksum.getValue());
+            long seq = ++appendedSeq;
+
+            if (policy == FsyncPolicy.ALWAYS) {
+                awaitedSeq.get()[0] = seq; // Synced in mutationsReleased, outside the caller's locks
+            }
+            if (pending.position() >= WRITE_THRESHOLD) {
+                awaitWritten(seq, false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the record with the given sequence number is written (and synced if
+     * requested). If no write is in progress the caller performs it, taking along every
+     * record appended so far. Must be called with the lock held.
+     */
+    private void awaitWritten(long seq, boolean sync) {
+        while (writtenSeq < seq || (sync && syncedSeq < seq)) {
+            if (failure != null) {
+                throw new UncheckedIOException("Journal write failed", failure);
+            }
+            if (writing) {
+                written.awaitUninterruptibly();
+                continue;
+            }
+            writing = true;
+            ByteBuffer toWrite = pending;
+            pending = spare;
+            inFlightBytes = toWrite.position();
+            long target = appendedSeq;
+            long offset = writtenLength;
+            IOException error = null;
+            lock.unlock();
+            try {
+                toWrite.flip();
+                while (toWrite.hasRemaining()) {
+                    offset += channel.write(toWrite, offset);
+                }
+                if (sync) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                lock.lock();
+                toWrite.clear();
+                spare = toWrite;
+                writing = false;
+                inFlightBytes = 0;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    writtenLength = offset;
+                    writtenSeq = target;
+                    if (sync) {
+                        syncedSeq = target;
+                    }
+                }
+                written.signalAll();
+            }
+        }
+    }
+
+    /**
+     * Receives a decoded record; the payload buffer is positioned at the payload.
+     */
+    private interface RecordVisitor {
+        void visit(byte type, ByteBuffer payload);
+    }
+
+    /**
+     * Visits every valid record between two offsets, reading the file through mapped
+     * windows, and stops at the first incomplete or corrupt record.
+     *
+     * @return the offset just past the last valid record
+     */
+    private long forEachRecord(long from, long to, RecordVisitor visitor) throws IOException {
+        CRC32C crc = new CRC32C();
+        long position = from;
+        while (position < to) {
+            long length = Math.min(READ_WINDOW, to - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int offset = 0;
+            while (window.limit() - offset >= HEADER_SIZE) {
+                int payloadSize = window.getInt(offset);
+                if (payloadSize < 0 || payloadSize > window.limit() - offset - HEADER_SIZE) {
+                    break; // Torn record, or one continuing past this window
+                }
+                crc.reset();
+                crc.update(window.slice(offset + Integer.BYTES * 2, 1 + payloadSize));
+                if ((int) crc.getValue() != window.getInt(offset + Integer.BYTES)) {
+                    return position + offset; // Corrupt record
+                }
+                if (visitor != null) {
+                    visitor.visit(window.get(offset + Integer.BYTES * 2), window.slice(offset + HEADER_SIZE, payloadSize));
+                }
+                offset += HEADER_SIZE + payloadSize;
+            }
+            if (offset == 0) {
+                return position; // Nothing complete in a full window: the rest is unusable
+            }
+            position += offset;
+            if (position + HEADER_SIZE > to) {
+                break;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Reads a course record into the courses waiting to be registered, unless the course is
+     * already known.
+     */
+    private static void readCourse(ByteBuffer payload, CourseService courseService,
+                                   Map<String, Course> pendingCourses, Map<String, Module> pendingModules) {
+        String code = RecordCodec.getString(payload);
+        String name = RecordCodec.getString(payload);
+        int credits = payload.getInt();
+        String moduleCode = RecordCodec.getString(payload);
+        String moduleName = RecordCodec.getString(payload);
+        String moduleDescription = RecordCodec.getString(payload);
+        if (courseService.getCourse(code) != null || pendingCourses.containsKey(code)) {
+            return;
+        }
+        Module module = null;
+        if (moduleCode != null) {
+            module = courseService.getModule(moduleCode);
+            if (module == null) {
+                module = pendingModules.computeIfAbsent(moduleCode, _ -> new Module(moduleCode, moduleName, moduleDescription));
+            }
+        }
+        pendingCourses.put(code, new Course(code, name, credits, module));
+    }
+
+    private static void registerPending(CourseService courseService,
+                                        Map<String, Course> pendingCourses, Map<String, Module> pendingModules) {
+        if (!pendingCourses.isEmpty()) {
+            courseService.registerCourses(List.copyOf(pendingCourses.values()));
+            pendingCourses.clear();
+            pendingModules.clear();
+        }
+    }
+
+    /**
+     * Applies one journal record, other than a course registration, to the services.
+     */
+    private static void apply(byte type, ByteBuffer payload, StudentService studentService, CourseService courseService) {
+        switch (type) {
+            case STUDENT_SUBSCRIBED -> {
+                String id = RecordCodec.getString(payload);
+                String name = RecordCodec.getString(payload);
+                String email = RecordCodec.getString(payload);
+                long birthDate = payload.getLong();
+                studentService.subscribeStudent(new Student(id, name, email, RecordCodec.longToDate(birthDate)));
+            }
+            case STUDENT_ENROLLED -> {
+                String studentId = RecordCodec.getString(payload);
+                Course course = courseService.getCourse(RecordCodec.getString(payload));
+                if (course != null) {
+                    studentService.enrollToCourse(studentId, course);
+                }
+            }
+            case COURSE_GRADED -> {
+                Student student = studentService.findStudent(RecordCodec.getString(payload));
+                String courseCode = RecordCodec.getString(payload);
+                double grade = payload.getDouble();
+                if (student != null) {
+                    studentService.gradeStudentCourse(student.getId(), courseCode, grade);
+                }
+            }
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.generation.persistence;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import com.generation.service.EnrollmentRegistry;
+import com.generation.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    // Deleted with its contents after each test
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    /**
+     * Creates an empty journal file location for each test.
+     */
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("studentgen.journal");
+    }
+
+    /**
+     * Records a few mutations through services with the journal attached.
+     */
+    private void recordMutations(FsyncPolicy policy) throws Exception {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        StudentService studentService = new StudentService(registry);
+        CourseService courseService = new CourseService(registry);
+        try (Journal journal = new Journal(file, policy, 10)) {
+            registry.addListener(journal);
+            studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+            courseService.registerCourse(new Course("EXTRA-1", "Extra Course", 3,
+                    new Module("EXTRA", "Extra Module", "Registered after startup")));
+            studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-1"));
+            studentService.enrollToCourse("S001", courseService.getCourse("EXTRA-1"));
+            studentService.gradeStudentCourse("S001", "INTRO-CS-1", 8.0);
+            studentService.gradeStudentCourse("S001", "INTRO-CS-1", 4.0);
+            studentService.gradeStudentCourse("S001", "EXTRA-1", 7.0);
+        }
+    }
+
+    /**
+     * Tests that replaying the journal rebuilds students, courses, enrollments and grades.
+     */
+    @Test
+    void testReplayRebuildsState() throws Exception {
+        recordMutations(FsyncPolicy.ALWAYS);
+
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        StudentService studentService = new StudentService(registry);
+        CourseService courseService = new CourseService(registry);
+        try (Journal journal = new Journal(file, FsyncPolicy.ALWAYS, 10)) {
+            assertEquals(7, journal.replay(studentService, courseService));
+        }
+
+        Student student = studentService.findStudent("S001");
+        assertNotNull(student);
+        assertEquals("John Doe", student.getName());
+        assertNotNull(courseService.getCourse("EXTRA-1"));
+        assertTrue(courseService.isStudentEnrolled("EXTRA-1", "S001"));
+        assertTrue(student.isCourseApproved("INTRO-CS-1"));
+        assertEquals((4.0 + 7.0) / 2, student.getAverage(), 0.001);
+    }
+
+    /**
+     * Tests that under ALWAYS every mutation is written by the time the service call returns,
+     * although the journal waits for it only after the student's lock is released.
+     */
+    @Test
+    void testAlwaysWritesBeforeServiceCallReturns() throws Exception {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        StudentService studentService = new StudentService(registry);
+        CourseService courseService = new CourseService(registry);
+        try (Journal journal = new Journal(file, FsyncPolicy.ALWAYS, 10)) {
+            registry.addListener(journal);
+            studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+            assertEquals(journal.position(), Files.size(file));
+            studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-1"));
+            assertEquals(journal.position(), Files.size(file));
+            studentService.gradeStudentCourse("S001", "INTRO-CS-1", 8.0);
+            assertEquals(journal.position(), Files.size(file));
+        }
+    }
+
+    /**
+     * Tests that a student replaced by a later subscription replays into the replacing
+     * student, as it was left in memory.
+     */
+    @Test
+    void testReplacedStudentReplaysLikeLiveState() throws Exception {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        StudentService studentService = new StudentService(registry);
+        CourseService courseService = new CourseService(registry);
+        try (Journal journal = new Journal(file, FsyncPolicy.NEVER, 10)) {
+            registry.addListener(journal);
+            studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+            studentService.subscribeStudent(new Student("S001", "John Smith", "smith@example.com", null));
+        }
+
+        StudentService restored = new StudentService(new EnrollmentRegistry());
+        try (Journal journal = new Journal(file, FsyncPolicy.NEVER, 10)) {
+            journal.replay(restored, courseService);
+        }
+        assertEquals("John Smith", restored.findStudent("S001").getName());
+        assertEquals(studentService.findStudent("S001").getEmail(), restored.findStudent("S001").getEmail());
+    }
+
+    /**
+     * Tests that a torn record at the end of the file is cut off and appending continues
+     * after the last valid record.
+     */
+    @Test
+    void testTornTailIsDiscarded() throws Exception {
+        recordMutations(FsyncPolicy.INTERVAL);
+        long validLength = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        try (Journal journal = new Journal(file, FsyncPolicy.NEVER, 10)) {
+            assertEquals(validLength, Files.size(file));
+            assertEquals(validLength, journal.position());
+            journal.studentSubscribed(new Student("S002", "Jane Roe", "jane@example.com", null));
+        }
+
+        StudentService studentService = new StudentService();
+        try (Journal journal = new Journal(file, FsyncPolicy.NEVER, 10)) {
+            assertEquals(8, journal.replay(studentService, new CourseService()));
+        }
+        assertTrue(studentService.isSubscribed("S002"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.generation.persistence;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Encoding helpers shared by the journal and snapshot formats. Strings are written as a
+ * length-prefixed UTF-8 byte sequence, with length -1 standing for null.
+ */
+class RecordCodec {
+
+    // Stored in place of the epoch millis of a missing date
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private RecordCodec() {
+    }
+
+    static int sizeOf(byte[] utf8) {
+        return Integer.BYTES + (utf8 == null ? 0 : utf8.length);
+    }
+
+    static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static void putString(ByteBuffer buffer, byte[] utf8) {
+        if (utf8 == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(utf8.length);
+            buffer.put(utf8);
+        }
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] utf8 = utf8(value);
+        if (utf8 == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long dateToLong(Date date) {
+        return date == null ? NO_DATE : date.getTime();
+    }
+
+    static Date longToDate(long value) {
+        return value == NO_DATE ? null : new Date(value);
+    }
+}
@@ -0,0 +1,346 @@
+package com.generation.persistence;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import com.generation.service.StudentService;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot of the full service state: modules with their prerequisites,
+ * the course catalog, and every student with enrollments, grades and approved courses.
+ * <p>
+ * A snapshot is written to a temporary file, synced and then atomically renamed over the
+ * previous one, so a crash never leaves a partial snapshot behind. It is loaded through a
+ * single memory-mapped read and verified with a trailing CRC32C, so startup cost depends on
+ * the snapshot size rather than on the length of the history.
+ * <p>
+ * Each snapshot records a journal offset taken before the state was read. Loading the
+ * snapshot and then replaying the journal from that offset restores the latest state. The
+ * replay may repeat changes the snapshot already contains: a repeated subscription replaces
+ * the restored student together with its enrollments and grades, which the records after it
+ * then restore again, and repeated enrollments and grades leave the state as it was.
+ */
+public class Snapshot {
+
+    // "SGSN" in ASCII
+    private static final int MAGIC = 0x5347534E;
+
+    private static final int VERSION = 1;
+
+    // Writes snapshots in the background, one at a time
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Snapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the services.
+     *
+     * @param file          the snapshot file, replaced atomically
+     * @param journalOffset journal position taken before this call, see {@link Journal#position()}
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(Path file, StudentService studentService, CourseService courseService, long journalOffset) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 20), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(journalOffset);
+            writeModules(out, collectModules(courseService));
+            writeCourses(out, courseService.getCourses());
+            writeStudents(out, studentService.getStudents());
+            out.flush();
+            new DataOutputStream(Channels.newOutputStream(channel)).writeInt((int) crc.getValue());
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes a snapshot on the background snapshot thread.
+     *
+     * @return a future completed with the snapshot file once it is in place
+     */
+    public static CompletableFuture<Path> writeAsync(Path file, StudentService studentService, CourseService courseService, long journalOffset) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                write(file, studentService, courseService, journalOffset);
+                return file;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, WRITER);
+    }
+
+    /**
+     * Loads a snapshot into empty services. Courses and students that are already registered
+     * are kept and receive the snapshot's enrollments, grades and approvals.
+     *
+     * @param file the snapshot file
+     * @return the journal offset to replay from
+     * @throws IOException if the file cannot be read, or is not a valid snapshot
+     */
+    public static long load(Path file, StudentService studentService, CourseService courseService) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < Integer.BYTES * 2 + Long.BYTES + Integer.BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            if (buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Unsupported snapshot version " + buffer.getInt(Integer.BYTES));
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, (int) size - Integer.BYTES));
+            if ((int) crc.getValue() != buffer.getInt((int) size - Integer.BYTES)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+
+            buffer.position(Integer.BYTES * 2);
+            long journalOffset = buffer.getLong();
+            checkReferences(buffer.duplicate(), courseService); // Before any state changes
+            Map<String, Module> modules = readModules(buffer, courseService);
+            readCourses(buffer, courseService, modules);
+            readStudents(buffer, studentService, courseService);
+            return journalOffset;
+        }
+    }
+
+    /**
+     * Collects the modules of all courses and, transitively, their prerequisites.
+     */
+    private static Collection<Module> collectModules(CourseService courseService) {
+        Map<String, Module> modules = new LinkedHashMap<>();
+        Deque<Module> toVisit = new ArrayDeque<>(courseService.getModules());
+        while (!toVisit.isEmpty()) {
+            Module module = toVisit.pop();
+            if (modules.putIfAbsent(module.getCode(), module) == null) {
+                toVisit.addAll(module.getPrerequisites().values());
+            }
+        }
+        return modules.values();
+    }
+
+    private static void writeModules(DataOutputStream out, Collection<Module> modules) throws IOException {
+        out.writeInt(modules.size());
+        for (Module module : modules) {
+            RecordCodec.writeString(out, module.getCode());
+            RecordCodec.writeString(out, module.getName());
+            RecordCodec.writeString(out, module.getDescription());
+            Collection<String> prerequisites = module.getPrerequisites().keySet();
+            out.writeInt(prerequisites.size());
+            for (String prerequisite : prerequisites) {
+                RecordCodec.writeString(out, prerequisite);
+            }
+        }
+    }
+
+    private static void writeCourses(DataOutputStream out, Collection<Course> courses) throws IOException {
+        Course[] snapshot = courses.toArray(new Course[0]); // Fixes the count while courses may be added
+        out.writeInt(snapshot.length);
+        for (Course course : snapshot) {
+            RecordCodec.writeString(out, course.getCode());
+            RecordCodec.writeString(out, course.getName());
+            out.writeInt(course.getCredits());
+            RecordCodec.writeString(out, course.getModule() == null ? null : course.getModule().getCode());
+        }
+    }
+
+    private static void writeStudents(DataOutputStream out, Collection<Student> students) throws IOException {
+        Student[] snapshot = students.toArray(new Student[0]);
+        out.writeInt(snapshot.length);
+        for (Student student : snapshot) {
+            RecordCodec.writeString(out, student.getId());
+            RecordCodec.writeString(out, student.getName());
+            RecordCodec.writeString(out, student.getEmail());
+            out.writeLong(RecordCodec.dateToLong(student.getBirthDate()));
+
+            Course[] enrolled = student.getEnrolledCourses().toArray(new Course[0]);
+            out.writeInt(enrolled.length);
+            for (Course course : enrolled) {
+                RecordCodec.writeString(out, course.getCode());
+                out.writeDouble(student.getGrade(course.getCode()));
+            }
+
+            Course[] approved = student.getApprovedCourses().toArray(new Course[0]);
+            out.writeInt(approved.length);
+            for (Course course : approved) {
+                RecordCodec.writeString(out, course.getCode());
+            }
+        }
+    }
+
+    /**
+     * Reads through the snapshot without applying it and checks that every module and course
+     * it refers to is either in the snapshot itself or already registered.
+     *
+     * @throws IOException naming the first unknown module or course
+     */
+    private static void checkReferences(ByteBuffer buffer, CourseService courseService) throws IOException {
+        Set<String> modules = new HashSet<>();
+        List<String> prerequisites = new ArrayList<>();
+        int moduleCount = buffer.getInt();
+        for (int i = 0; i < moduleCount; i++) {
+            modules.add(RecordCodec.getString(buffer));
+            RecordCodec.getString(buffer); // Name
+            RecordCodec.getString(buffer); // Description
+            for (int p = buffer.getInt(); p > 0; p--) {
+                prerequisites.add(RecordCodec.getString(buffer));
+            }
+        }
+        for (String prerequisite : prerequisites) {
+            if (!modules.contains(prerequisite)) {
+                throw new IOException("Unknown module in snapshot: " + prerequisite);
+            }
+        }
+
+        Set<String> courses = new HashSet<>();
+        int courseCount = buffer.getInt();
+        for (int i = 0; i < courseCount; i++) {
+            courses.add(RecordCodec.getString(buffer));
+            RecordCodec.getString(buffer); // Name
+            buffer.getInt(); // Credits
+            String moduleCode = RecordCodec.getString(buffer);
+            if (moduleCode != null && !modules.contains(moduleCode)) {
+                throw new IOException("Unknown module in snapshot: " + moduleCode);
+            }
+        }
+
+        int studentCount = buffer.getInt();
+        for (int i = 0; i < studentCount; i++) {
+            String id = RecordCodec.getString(buffer);
+            RecordCodec.getString(buffer); // Name
+            RecordCodec.getString(buffer); // Email
+            buffer.getLong(); // Birth date
+            for (int c = buffer.getInt(); c > 0; c--) {
+                checkCourse(RecordCodec.getString(buffer), id, courses, courseService);
+                buffer.getDouble(); // Grade
+            }
+            for (int c = buffer.getInt(); c > 0; c--) {
+                checkCourse(RecordCodec.getString(buffer), id, courses, courseService);
+            }
+        }
+    }
+
+    private static void checkCourse(String code, String studentId, Set<String> courses, CourseService courseService) throws IOException {
+        if (code == null || (!courses.contains(code) && courseService.getCourse(code) == null)) {
+            throw new IOException("Unknown course " + code + " for student " + studentId + " in snapshot");
+        }
+    }
+
+    private static Map<String, Module> readModules(ByteBuffer buffer, CourseService courseService) {
+        int count = buffer.getInt();
+        Map<String, Module> modules = new HashMap<>();
+        Map<String, String[]> prerequisites = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String code = RecordCodec.getString(buffer);
+            String name = RecordCodec.getString(buffer);
+            String description = RecordCodec.getString(buffer);
+            Module module = courseService.getModule(code);
+            modules.put(code, module != null ? module : new Module(code, name, description));
+
+            String[] prerequisiteCodes = new String[buffer.getInt()];
+            for (int p = 0; p < prerequisiteCodes.length; p++) {
+                prerequisiteCodes[p] = RecordCodec.getString(buffer);
+            }
+            prerequisites.put(code, prerequisiteCodes);
+        }
+        for (Map.Entry<String, String[]> entry : prerequisites.entrySet()) {
+            Module module = modules.get(entry.getKey());
+            if (module.isFrozen()) {
+                continue; // A module of the loaded catalog keeps the prerequisites of the catalog file
+            }
+            for (String prerequisite : entry.getValue()) {
+                if (!module.getPrerequisites().containsKey(prerequisite)) {
+                    module.addPrerequisite(modules.get(prerequisite));
+                }
+            }
+        }
+        return modules;
+    }
+
+    private static void readCourses(ByteBuffer buffer, CourseService courseService, Map<String, Module> modules) {
+        int count = buffer.getInt();
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String code = RecordCodec.getString(buffer);
+            String name = RecordCodec.getString(buffer);
+            int credits = buffer.getInt();
+            String moduleCode = RecordCodec.getString(buffer);
+            if (courseService.getCourse(code) == null) {
+                courses.add(new Course(code, name, credits, moduleCode == null ? null : modules.get(moduleCode)));
+            }
+        }
+        courseService.registerCourses(courses); // Builds the catalog once
+    }
+
+    private static void readStudents(ByteBuffer buffer, StudentService studentService, CourseService courseService) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            String id = RecordCodec.getString(buffer);
+            String name = RecordCodec.getString(buffer);
+            String email = RecordCodec.getString(buffer);
+            long birthDate = buffer.getLong();
+            studentService.subscribeStudentIfAbsent(new Student(id, name, email, RecordCodec.longToDate(birthDate)));
+
+            Course[] enrolled = new Course[buffer.getInt()];
+            double[] grades = new double[enrolled.length];
+            for (int c = 0; c < enrolled.length; c++) {
+                enrolled[c] = courseService.getCourse(RecordCodec.getString(buffer));
+                grades[c] = buffer.getDouble();
+            }
+
+            // Approvals go first: they complete the modules later enrollments may depend on,
+            // even where a course was passed and then graded lower
+            int approved = buffer.getInt();
+            for (int c = 0; c < approved; c++) {
+                studentService.registerApprovedCourse(id, courseService.getCourse(RecordCodec.getString(buffer)));
+            }
+            for (int c = 0; c < enrolled.length; c++) {
+                studentService.enrollToCourse(id, enrolled[c]);
+                if (!Double.isNaN(grades[c])) {
+                    studentService.gradeStudentCourse(id, enrolled[c].getCode(), grades[c]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.generation.persistence;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+import com.generation.service.CourseService;
+import com.generation.service.EnrollmentRegistry;
+import com.generation.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    // Deleted with its contents after each test
+    @TempDir
+    Path directory;
+
+    private EnrollmentRegistry registry;
+    private StudentService studentService;
+    private CourseService courseService;
+
+    /**
+     * Sets up services with one graded student and a course in a new module.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new EnrollmentRegistry();
+        studentService = new StudentService(registry);
+        courseService = new CourseService(registry);
+
+        Module advanced = new Module("ADV-CS", "Advanced Computer Science", "Follows the introduction");
+        advanced.addPrerequisite(courseService.getModule("INTRO-CS"));
+        courseService.registerCourse(new Course("ADV-CS-1", "Compilers", 12, advanced));
+
+        studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", new Date(946684800000L)));
+        for (int i = 1; i <= 7; i++) {
+            // ADV-CS requires the whole INTRO-CS module
+            studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-" + i));
+            studentService.gradeStudentCourse("S001", "INTRO-CS-" + i, 9.0);
+        }
+        assertTrue(studentService.enrollToCourse("S001", courseService.getCourse("ADV-CS-1")));
+        studentService.gradeStudentCourse("S001", "INTRO-CS-1", 5.5); // Stays approved
+    }
+
+    /**
+     * Tests that loading a snapshot restores students, catalog, enrollments, grades and approvals.
+     */
+    @Test
+    void testWriteAndLoadRoundTrip() throws Exception {
+        Path file = directory.resolve("state.snapshot");
+        Snapshot.writeAsync(file, studentService, courseService, 42).get();
+
+        // Restore through a shared registry, as Main does, so enrollments must meet prerequisites
+        EnrollmentRegistry restoredRegistry = new EnrollmentRegistry();
+        StudentService restoredStudents = new StudentService(restoredRegistry);
+        CourseService restoredCourses = new CourseService(restoredRegistry);
+        assertEquals(42, Snapshot.load(file, restoredStudents, restoredCourses));
+
+        Student student = restoredStudents.findStudent("S001");
+        assertEquals("john@example.com", student.getEmail());
+        assertEquals(new Date(946684800000L), student.getBirthDate());
+        assertTrue(student.isAttendingCourse("ADV-CS-1"));
+        assertTrue(restoredCourses.isStudentEnrolled("ADV-CS-1", "S001"));
+        assertTrue(restoredCourses.getModuleApprovedStudents("INTRO-CS").contains(student));
+        assertTrue(student.isCourseApproved("INTRO-CS-1"));
+        assertEquals(5.5, student.getGrade("INTRO-CS-1"), 0.0);
+        assertTrue(Double.isNaN(student.getGrade("ADV-CS-1")));
+
+        Course advanced = restoredCourses.getCourse("ADV-CS-1");
+        assertEquals(12, advanced.getCredits());
+        assertTrue(advanced.getModule().getPrerequisites().containsKey("INTRO-CS"));
+    }
+
+    /**
+     * Tests that changes recorded in the journal after the snapshot are applied on top of it.
+     */
+    @Test
+    void testSnapshotCombinesWithJournal() throws Exception {
+        Path snapshotFile = directory.resolve("state.snapshot");
+        Path journalFile = directory.resolve("state.journal");
+        try (Journal journal = new Journal(journalFile, FsyncPolicy.NEVER, 10)) {
+            registry.addListener(journal);
+            studentService.gradeStudentCourse("S001", "ADV-CS-1", 4.0);
+            Snapshot.write(snapshotFile, studentService, courseService, journal.position());
+            studentService.gradeStudentCourse("S001", "ADV-CS-1", 7.0);
+        }
+
+        StudentService restoredStudents = new StudentService();
+        CourseService restoredCourses = new CourseService();
+        long offset = Snapshot.load(snapshotFile, restoredStudents, restoredCourses);
+        try (Journal journal = new Journal(journalFile, FsyncPolicy.NEVER, 10)) {
+            assertEquals(1, journal.replay(offset, restoredStudents, restoredCourses));
+        }
+        assertTrue(restoredStudents.findStudent("S001").isCourseApproved("ADV-CS-1"));
+    }
+
+    /**
+     * Tests that replaying journal records the snapshot already contains, as after an
+     * asynchronous snapshot, restores the student instead of losing its enrollment and grade
+     * to the repeated subscription.
+     */
+    @Test
+    void testJournalOverlappingSnapshotRestoresStudent() throws Exception {
+        Path snapshotFile = directory.resolve("state.snapshot");
+        Path journalFile = directory.resolve("state.journal");
+        try (Journal journal = new Journal(journalFile, FsyncPolicy.NEVER, 10)) {
+            registry.addListener(journal);
+            long offset = journal.position();
+            studentService.subscribeStudent(new Student("S002", "Jane Roe", "jane@example.com", null));
+            studentService.enrollToCourse("S002", courseService.getCourse("INTRO-CS-1"));
+            studentService.gradeStudentCourse("S002", "INTRO-CS-1", 8.0);
+            Snapshot.write(snapshotFile, studentService, courseService, offset);
+        }
+
+        EnrollmentRegistry restoredRegistry = new EnrollmentRegistry();
+        StudentService restoredStudents = new StudentService(restoredRegistry);
+        CourseService restoredCourses = new CourseService(restoredRegistry);
+        long offset = Snapshot.load(snapshotFile, restoredStudents, restoredCourses);
+        try (Journal journal = new Journal(journalFile, FsyncPolicy.NEVER, 10)) {
+            assertEquals(3, journal.replay(offset, restoredStudents, restoredCourses));
+        }
+
+        Student student = restoredStudents.findStudent("S002");
+        assertTrue(student.isAttendingCourse("INTRO-CS-1"));
+        assertEquals(8.0, student.getGrade("INTRO-CS-1"), 0.0);
+        assertTrue(restoredStudents.getRank("S002") >= 0);
+        assertEquals(1, restoredCourses.getEnrolledStudents("INTRO-CS-1").stream().filter(s -> s.getId().equals("S002")).count());
+        assertTrue(restoredCourses.getEnrolledStudents("INTRO-CS-1").contains(student));
+        // S001's 5.5 and S002's 8.0, with the replaced student's grade no longer counted
+        assertEquals(2, restoredCourses.getGradeStatistics("INTRO-CS-1").getCount());
+    }
+
+    /**
+     * Tests that a snapshot offset beyond a journal that was recreated since does not skip
+     * the records of the new journal.
+     */
+    @Test
+    void testStaleJournalOffsetReplaysWholeJournal() throws Exception {
+        Path snapshotFile = directory.resolve("state.snapshot");
+        Path journalFile = directory.resolve("state.journal");
+        Snapshot.write(snapshotFile, studentService, courseService, 1_000);
+        try (Journal journal = new Journal(journalFile, FsyncPolicy.NEVER, 10)) {
+            registry.addListener(journal);
+            studentService.gradeStudentCourse("S001", "ADV-CS-1", 7.0);
+        }
+
+        StudentService restoredStudents = new StudentService();
+        CourseService restoredCourses = new CourseService();
+        long offset = Snapshot.load(snapshotFile, restoredStudents, restoredCourses);
+        try (Journal journal = new Journal(journalFile, FsyncPolicy.NEVER, 10)) {
+            assertFalse(journal.isRecordBoundary(offset));
+            assertEquals(1, journal.replay(offset, restoredStudents, restoredCourses));
+        }
+        assertTrue(restoredStudents.findStudent("S001").isCourseApproved("ADV-CS-1"));
+    }
+
+    /**
+     * Tests that a damaged snapshot is rejected instead of being partially loaded.
+     */
+    @Test
+    void testCorruptSnapshotIsRejected() throws Exception {
+        Path file = directory.resolve("state.snapshot");
+        Snapshot.write(file, studentService, courseService, 0);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> Snapshot.load(file, new StudentService(), new CourseService()));
+    }
+
+    /**
+     * Tests that a snapshot naming a course that neither it nor the catalog has is rejected
+     * before any state is restored.
+     */
+    @Test
+    void testUnknownCourseIsRejected() throws Exception {
+        Path file = directory.resolve("state.snapshot");
+        Snapshot.write(file, studentService, courseService, 0);
+        byte[] bytes = Files.readAllBytes(file);
+        // The last mention of ADV-CS-1 is the student's enrollment; rename it and fix the checksum
+        byte[] code = "ADV-CS-1".getBytes(StandardCharsets.UTF_8);
+        int at = lastIndexOf(bytes, code);
+        bytes[at + code.length - 1] = '9';
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - Integer.BYTES, (int) crc.getValue());
+        Files.write(file, bytes);
+
+        StudentService restoredStudents = new StudentService();
+        CourseService restoredCourses = new CourseService();
+        IOException e = assertThrows(IOException.class, () -> Snapshot.load(file, restoredStudents, restoredCourses));
+        assertTrue(e.getMessage().contains("ADV-CS-9"));
+        assertTrue(restoredStudents.getStudents().isEmpty());
+        assertNull(restoredCourses.getCourse("ADV-CS-1"));
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte[] part) {
+        for (int i = bytes.length - part.length; i >= 0; i--) {
+            if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Not found");
+    }
+}
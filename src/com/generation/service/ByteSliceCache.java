@@ -0,0 +1,104 @@
+package com.generation.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Resolves byte ranges of a buffer (e.g. an ID field of a mapped file) to values without
+ * creating a String for keys that were already seen. A String is only decoded the first
+ * time a key appears; unresolvable keys are remembered too, so repeated bad keys are cheap.
+ *
+ * @param <V> the resolved value type
+ */
+class ByteSliceCache<V> {
+
+    // Marks keys the resolver could not resolve
+    private static final Object MISSING = new Object();
+
+    private final Function<String, V> resolver;
+
+    private byte[][] keys = new byte[64][];
+
+    private int[] hashes = new int[64];
+
+    private Object[] values = new Object[64];
+
+    private int size;
+
+    ByteSliceCache(Function<String, V> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Returns the value for the bytes in {@code [from, to)} of the buffer.
+     *
+     * @return the resolved value, or null if the resolver returned null for this key
+     */
+    @SuppressWarnings("unchecked")
+    V get(ByteBuffer buffer, int from, int to) {
+        int hash = hash(buffer, from, to);
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && matches(keys[slot], buffer, from, to)) {
+                Object value = values[slot];
+                return value == MISSING ? null : (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        byte[] key = new byte[to - from];
+        buffer.get(from, key);
+        V value = resolver.apply(new String(key, StandardCharsets.UTF_8));
+        keys[slot] = key;
+        hashes[slot] = hash;
+        values[slot] = value == null ? MISSING : value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return value;
+    }
+
+    private static int hash(ByteBuffer buffer, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + buffer.get(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(byte[] key, ByteBuffer buffer, int from, int to) {
+        if (key.length != to - from) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buffer.get(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        byte[][] oldKeys = keys;
+        int[] oldHashes = hashes;
+        Object[] oldValues = values;
+        keys = new byte[oldKeys.length * 2][];
+        hashes = new int[keys.length];
+        values = new Object[keys.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
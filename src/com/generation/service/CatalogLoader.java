@@ -0,0 +1,149 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a course catalog file. Each non-blank line that is not a {@code #} comment is one of
+ * <pre>
+ * module &lt;code&gt; | &lt;name&gt; | &lt;description&gt;
+ * prerequisite &lt;module code&gt; | &lt;required module code&gt;
+ * course &lt;code&gt; | &lt;name&gt; | &lt;credits&gt; | &lt;module code&gt;
+ * </pre>
+ * and a module must be declared before it is referenced. The whole file is read in one
+ * pass and the catalog is built once at the end.
+ */
+final class CatalogLoader {
+
+    // Classpath resource holding the default catalog, next to this class
+    private static final String DEFAULT_CATALOG = "catalog.txt";
+
+    private CatalogLoader() {
+    }
+
+    /**
+     * Holds the default catalog, so it is read on first use only and then shared by every
+     * CourseService.
+     */
+    private static final class DefaultCatalog {
+
+        static final CourseCatalog INSTANCE = loadDefault();
+    }
+
+    /**
+     * @return the default catalog, read from the classpath on first call
+     */
+    static CourseCatalog defaultCatalog() {
+        return DefaultCatalog.INSTANCE;
+    }
+
+    private static CourseCatalog loadDefault() {
+        try (InputStream in = CatalogLoader.class.getResourceAsStream(DEFAULT_CATALOG)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing catalog resource " + DEFAULT_CATALOG);
+            }
+            return read(new InputStreamReader(in, StandardCharsets.UTF_8), DEFAULT_CATALOG);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a catalog file.
+     *
+     * @param file the catalog file
+     * @return the catalog
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    static CourseCatalog load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader, file.toString());
+        }
+    }
+
+    private static CourseCatalog read(Reader reader, String source) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        Map<String, Module> modules = new HashMap<>();
+        List<Course> courses = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int space = line.indexOf(' ');
+            String keyword = space < 0 ? line : line.substring(0, space);
+            String[] fields = space < 0 ? new String[0] : line.substring(space + 1).split("\\|", -1);
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = fields[i].strip();
+            }
+            switch (keyword) {
+                case "module" -> {
+                    expectFields(fields, 3, source, lineNumber);
+                    if (modules.putIfAbsent(fields[0], new Module(fields[0], fields[1], fields[2])) != null) {
+                        throw malformed("Duplicate module " + fields[0], source, lineNumber);
+                    }
+                }
+                case "prerequisite" -> {
+                    expectFields(fields, 2, source, lineNumber);
+                    Module module = module(modules, fields[0], source, lineNumber);
+                    try {
+                        module.addPrerequisite(module(modules, fields[1], source, lineNumber));
+                    } catch (IllegalArgumentException e) {
+                        throw malformed(e.getMessage(), source, lineNumber); // Cycle
+                    }
+                }
+                case "course" -> {
+                    expectFields(fields, 4, source, lineNumber);
+                    int credits;
+                    try {
+                        credits = Integer.parseInt(fields[2]);
+                    } catch (NumberFormatException e) {
+                        throw malformed("Invalid credits " + fields[2], source, lineNumber);
+                    }
+                    Module module = fields[3].isEmpty() ? null : module(modules, fields[3], source, lineNumber);
+                    courses.add(new Course(fields[0], fields[1], credits, module));
+                }
+                default -> throw malformed("Unknown entry " + keyword, source, lineNumber);
+            }
+        }
+        for (Module module : modules.values()) {
+            module.freeze(); // Loaded catalogs may be shared, so their graph must not change
+        }
+        return CourseCatalog.of(courses);
+    }
+
+    private static Module module(Map<String, Module> modules, String code, String source, int lineNumber) {
+        Module module = modules.get(code);
+        if (module == null) {
+            throw malformed("Undeclared module " + code, source, lineNumber);
+        }
+        return module;
+    }
+
+    private static void expectFields(String[] fields, int count, String source, int lineNumber) {
+        if (fields.length != count || fields[0].isEmpty()) {
+            throw malformed("Expected " + count + " fields separated by '|'", source, lineNumber);
+        }
+    }
+
+    private static IllegalArgumentException malformed(String message, String source, int lineNumber) {
+        return new IllegalArgumentException(source + ":" + lineNumber + ": " + message);
+    }
+}
@@ -0,0 +1,309 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the registered courses and their modules.
+ * <p>
+ * Every course gets a dense id, its position in registration order, and course codes are
+ * resolved to ids through a minimal-collision perfect hash built with hash-and-displace: codes
+ * are split into buckets, and each bucket gets a seed that places all of its codes in free
+ * slots of the table. A lookup hashes the code once, reads one seed and one slot, and
+ * compares a single candidate. Registering a course builds a new catalog, so readers never
+ * need a lock.
+ */
+public final class CourseCatalog {
+
+    // The catalog without courses
+    static final CourseCatalog EMPTY = new CourseCatalog(new Course[0], Collections.emptyMap());
+
+    // Seeds tried per bucket before moving to a larger table; far more than a real catalog needs
+    private static final int MAX_SEED = 1 << 20;
+
+    // Courses by id
+    private final Course[] courses;
+
+    // Read-only list view of the courses, in id order
+    private final List<Course> courseList;
+
+    // Modules of the courses by module code, in registration order
+    private final Map<String, Module> modules;
+
+    // Number of courses in each module, by module index
+    private final int[] moduleSizes;
+
+    // Indexes of the modules with at least one course
+    private final BitSet modulesWithCourses = new BitSet();
+
+    // Seed of each bucket of codes
+    private final int[] seeds;
+
+    // Id + 1 of the course in each slot; 0 marks an empty slot
+    private final int[] slots;
+
+    private CourseCatalog(Course[] courses, Map<String, Module> modules) {
+        this.courses = courses;
+        this.courseList = Collections.unmodifiableList(Arrays.asList(courses));
+        this.modules = modules;
+        this.moduleSizes = countModuleCourses(courses);
+        for (int i = 0; i < moduleSizes.length; i++) {
+            modulesWithCourses.set(i, moduleSizes[i] > 0);
+        }
+        int[][] table = placeCodes(courses);
+        this.seeds = table[0];
+        this.slots = table[1];
+    }
+
+    /**
+     * Reads a catalog file; see {@link CatalogLoader} for the format.
+     *
+     * @param file the catalog file
+     * @return the catalog
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static CourseCatalog load(Path file) throws IOException {
+        return CatalogLoader.load(file);
+    }
+
+    /**
+     * Builds a catalog in one pass; a later course replaces an earlier one with the same code.
+     *
+     * @param courses the courses in registration order
+     * @return the catalog
+     */
+    static CourseCatalog of(List<Course> courses) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<Course> unique = new ArrayList<>(courses.size());
+        Map<String, Module> modules = new LinkedHashMap<>();
+        for (Course course : courses) {
+            Integer id = ids.putIfAbsent(course.getCode(), unique.size());
+            if (id == null) {
+                unique.add(course);
+            } else {
+                unique.set(id, course);
+            }
+            if (course.getModule() != null) {
+                modules.putIfAbsent(course.getModule().getCode(), course.getModule());
+            }
+        }
+        return new CourseCatalog(unique.toArray(new Course[0]), Collections.unmodifiableMap(modules));
+    }
+
+    /**
+     * Returns a catalog with the course added, or replacing the course with the same code,
+     * which keeps its id.
+     *
+     * @param course the course to register
+     * @return the new catalog
+     */
+    CourseCatalog with(Course course) {
+        int id = idOf(course.getCode());
+        Course[] updated = Arrays.copyOf(courses, id < 0 ? courses.length + 1 : courses.length);
+        updated[id < 0 ? courses.length : id] = course;
+
+        Map<String, Module> updatedModules = modules;
+        Module module = course.getModule();
+        if (module != null && !modules.containsKey(module.getCode())) {
+            updatedModules = new LinkedHashMap<>(modules);
+            updatedModules.put(module.getCode(), module);
+            updatedModules = Collections.unmodifiableMap(updatedModules);
+        }
+        return new CourseCatalog(updated, updatedModules);
+    }
+
+    /**
+     * @param code the course code
+     * @return the id of the course, or -1 if there is no course with that code
+     */
+    public int idOf(String code) {
+        int hash = code.hashCode();
+        int slot = slots[slotOf(code, seeds[bucketOf(hash, seeds.length)], slots.length)] - 1;
+        return slot >= 0 && courses[slot].getCode().equals(code) ? slot : -1;
+    }
+
+    /**
+     * @param code the course code
+     * @return the course, or null if there is no course with that code
+     */
+    public Course getCourse(String code) {
+        int id = idOf(code);
+        return id < 0 ? null : courses[id];
+    }
+
+    /**
+     * @param id the course id
+     * @return the course, or null if the id is not in the catalog
+     */
+    public Course getCourse(int id) {
+        return id >= 0 && id < courses.length ? courses[id] : null;
+    }
+
+    /**
+     * @return number of courses
+     */
+    public int size() {
+        return courses.length;
+    }
+
+    /**
+     * @return the courses in id order
+     */
+    public List<Course> getCourses() {
+        return courseList;
+    }
+
+    /**
+     * @return the modules of the courses, in registration order
+     */
+    public Collection<Module> getModules() {
+        return modules.values();
+    }
+
+    /**
+     * @param code the module code
+     * @return the module, or null if no course belongs to it
+     */
+    public Module getModule(String code) {
+        return modules.get(code);
+    }
+
+    /**
+     * @param module the module
+     * @return number of courses in the module, 0 if none are in the catalog
+     */
+    public int courseCount(Module module) {
+        return module.getIndex() < moduleSizes.length ? moduleSizes[module.getIndex()] : 0;
+    }
+
+    private static int[] countModuleCourses(Course[] courses) {
+        int maxIndex = -1;
+        for (Course course : courses) {
+            if (course.getModule() != null) {
+                maxIndex = Math.max(maxIndex, course.getModule().getIndex());
+            }
+        }
+        int[] sizes = new int[maxIndex + 1];
+        for (Course course : courses) {
+            if (course.getModule() != null) {
+                sizes[course.getModule().getIndex()]++;
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * @return indexes of the modules with at least one course; must not be modified
+     */
+    BitSet getModulesWithCourses() {
+        return modulesWithCourses;
+    }
+
+    /**
+     * Chooses bucket seeds so that every code lands in its own slot, placing the largest
+     * buckets first while the table is still mostly empty. Should no seed fit a bucket, the
+     * codes are placed again in a table twice as large, which always succeeds eventually.
+     *
+     * @return the seeds and the slots
+     */
+    private static int[][] placeCodes(Course[] courses) {
+        int[] seeds = new int[Math.max(1, courses.length / 4)];
+        List<List<Integer>> buckets = new ArrayList<>(seeds.length);
+        for (int b = 0; b < seeds.length; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int id = 0; id < courses.length; id++) {
+            buckets.get(bucketOf(courses[id].getCode().hashCode(), seeds.length)).add(id);
+        }
+        Integer[] order = new Integer[seeds.length];
+        for (int b = 0; b < order.length; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+        int[] placed = new int[courses.length];
+        for (int size = Integer.highestOneBit(Math.max(1, courses.length) * 2 - 1) << 1; ; size <<= 1) {
+            int[] slots = new int[size];
+            if (placeBuckets(courses, buckets, order, seeds, slots, placed)) {
+                return new int[][]{seeds, slots};
+            }
+            if (size >= 1 << 30) {
+                throw new IllegalStateException("Cannot build a perfect hash for " + courses.length + " course codes");
+            }
+        }
+    }
+
+    /**
+     * @return true if every bucket got a seed placing its codes in free slots
+     */
+    private static boolean placeBuckets(Course[] courses, List<List<Integer>> buckets, Integer[] order,
+                                        int[] seeds, int[] slots, int[] placed) {
+        for (int bucket : order) {
+            List<Integer> ids = buckets.get(bucket);
+            if (ids.isEmpty()) {
+                break;
+            }
+            int seed = findSeed(courses, ids, slots, placed);
+            if (seed < 0) {
+                return false;
+            }
+            seeds[bucket] = seed;
+            for (int i = 0; i < ids.size(); i++) {
+                slots[placed[i]] = ids.get(i) + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param placed receives the slot chosen for each id
+     * @return a seed that puts every id of the bucket in a distinct free slot, or -1 if none
+     *         was found
+     */
+    private static int findSeed(Course[] courses, List<Integer> ids, int[] slots, int[] placed) {
+        for (int seed = 0; seed < MAX_SEED; seed++) {
+            boolean free = true;
+            for (int i = 0; i < ids.size() && free; i++) {
+                int slot = slotOf(courses[ids.get(i)].getCode(), seed, slots.length);
+                placed[i] = slot;
+                free = slots[slot] == 0;
+                for (int j = 0; j < i && free; j++) {
+                    free = placed[j] != slot;
+                }
+            }
+            if (free) {
+                return seed;
+            }
+        }
+        return -1;
+    }
+
+    private static int bucketOf(int hash, int buckets) {
+        return Math.floorMod(hash * 0x9E3779B9, buckets);
+    }
+
+    /**
+     * Seeded FNV-1a over the characters of the code. The code's own hashCode cannot be used
+     * here, as two codes with equal hash codes could then never be separated.
+     */
+    private static int slotOf(String code, int seed, int tableSize) {
+        int hash = 0x811C9DC5 ^ seed * 0x9E3779B9;
+        for (int i = 0; i < code.length(); i++) {
+            hash = (hash ^ code.charAt(i)) * 0x01000193;
+        }
+        return (hash ^ hash >>> 16) & (tableSize - 1);
+    }
+}
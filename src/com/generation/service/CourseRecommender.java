@@ -0,0 +1,183 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Recommends the catalog courses a student can take next: courses the student is neither
+ * enrolled in nor has passed, whose module's prerequisites the student has completed.
+ * <p>
+ * The catalog is first grouped by module, with the prerequisite modules each group requires
+ * as a bitset, so checking a student costs one bitset comparison per module. Courses are
+ * ordered by the student's progress in their module, most advanced first, so students are
+ * steered towards finishing what they started; ties keep catalog order. The whole student
+ * body is evaluated in parallel by {@link #recommendAll()}.
+ */
+public class CourseRecommender {
+
+    private final StudentService studentService;
+
+    private final CourseService courseService;
+
+    /**
+     * Creates a recommender.
+     *
+     * @param studentService the service students are read from
+     * @param courseService  the service whose catalog is recommended from
+     */
+    public CourseRecommender(StudentService studentService, CourseService courseService) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+    }
+
+    /**
+     * Returns the courses a student can take next.
+     *
+     * @param studentId the student's ID
+     * @return the courses, most advanced module first, empty if the student does not exist
+     */
+    public List<Course> recommend(String studentId) {
+        Student student = studentService.findStudent(studentId);
+        return student == null ? Collections.emptyList() : new Plan(courseService.getCatalog()).recommend(student);
+    }
+
+    /**
+     * Returns the courses every registered student can take next, evaluating students in
+     * parallel across all cores.
+     *
+     * @return the recommendations of each student
+     */
+    public Map<Student, List<Course>> recommendAll() {
+        Plan plan = new Plan(courseService.getCatalog());
+        Student[] students = studentService.getStudents().toArray(new Student[0]);
+        List<?>[] recommended = new List<?>[students.length];
+        IntStream.range(0, students.length).parallel().forEach(i -> recommended[i] = plan.recommend(students[i]));
+
+        Map<Student, List<Course>> result = new LinkedHashMap<>();
+        for (int i = 0; i < students.length; i++) {
+            @SuppressWarnings("unchecked")
+            List<Course> courses = (List<Course>) recommended[i];
+            result.put(students[i], courses);
+        }
+        return result;
+    }
+
+    /**
+     * The catalog grouped by module, with what each group requires. Courses without a module
+     * form a group of their own with no requirements.
+     */
+    private static final class Plan {
+
+        private final List<Group> groups = new ArrayList<>();
+
+        // Group of each module, by module index
+        private final Group[] groupByModule;
+
+        Plan(CourseCatalog catalog) {
+            BitSet withCourses = catalog.getModulesWithCourses();
+            groupByModule = new Group[withCourses.length()];
+            Group noModule = null;
+            for (Course course : catalog.getCourses()) {
+                Module module = course.getModule();
+                Group group;
+                if (module == null) {
+                    if (noModule == null) {
+                        noModule = addGroup(new BitSet(), 0);
+                    }
+                    group = noModule;
+                } else {
+                    group = groupByModule[module.getIndex()];
+                    if (group == null) {
+                        BitSet required = (BitSet) module.getPrerequisiteIndexes().clone();
+                        required.and(withCourses); // Modules without courses are always completed
+                        group = addGroup(required, catalog.courseCount(module));
+                        groupByModule[module.getIndex()] = group;
+                    }
+                }
+                group.courses.add(course);
+            }
+        }
+
+        private Group addGroup(BitSet required, int size) {
+            Group group = new Group(groups.size(), required, size);
+            groups.add(group);
+            return group;
+        }
+
+        List<Course> recommend(Student student) {
+            BitSet completed = student.getCompletedModules();
+            int[] passed = new int[groups.size()];
+            for (Course course : student.getApprovedCourses()) {
+                Group group = groupOf(course);
+                if (group != null) {
+                    passed[group.position]++;
+                }
+            }
+
+            List<Group> eligible = new ArrayList<>();
+            for (Group group : groups) {
+                BitSet missing = (BitSet) group.required.clone();
+                missing.andNot(completed);
+                if (missing.isEmpty()) {
+                    eligible.add(group);
+                }
+            }
+            eligible.sort(Comparator.comparingDouble((Group group) -> -group.progress(passed[group.position])));
+
+            List<Course> result = new ArrayList<>();
+            for (Group group : eligible) {
+                for (Course course : group.courses) {
+                    if (!student.isAttendingCourse(course.getCode()) && !student.isCourseApproved(course.getCode())) {
+                        result.add(course);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private Group groupOf(Course course) {
+            Module module = course.getModule();
+            if (module == null || module.getIndex() >= groupByModule.length) {
+                return null;
+            }
+            return groupByModule[module.getIndex()];
+        }
+    }
+
+    /**
+     * The courses of one module in catalog order.
+     */
+    private static final class Group {
+
+        final int position;
+
+        final BitSet required;
+
+        final int size;
+
+        final List<Course> courses = new ArrayList<>();
+
+        Group(int position, BitSet required, int size) {
+            this.position = position;
+            this.required = required;
+            this.size = size;
+        }
+
+        /**
+         * @return the fraction of the module's courses the student passed
+         */
+        double progress(int passed) {
+            return size == 0 ? 0.0 : (double) passed / size;
+        }
+    }
+}
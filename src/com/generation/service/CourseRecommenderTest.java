@@ -0,0 +1,75 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseRecommenderTest {
+
+    private StudentService studentService;
+    private CourseService courseService;
+    private CourseRecommender recommender;
+    private Course advancedCourse;
+
+    /**
+     * Sets up services sharing one registry, with an advanced module that requires INTRO-WEB.
+     */
+    @BeforeEach
+    void setUp() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        courseService = new CourseService(registry);
+        studentService = new StudentService(registry);
+        recommender = new CourseRecommender(studentService, courseService);
+
+        Module advanced = new Module("ADV-WEB", "Advanced Web", "Follows the web fundamentals");
+        advanced.addPrerequisite(courseService.getModule("INTRO-WEB"));
+        advancedCourse = new Course("ADV-WEB-1", "Web APIs", 9, advanced);
+        courseService.registerCourse(advancedCourse);
+
+        studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+        studentService.subscribeStudent(new Student("S002", "Jane Roe", "jane@example.com", null));
+    }
+
+    /**
+     * Tests that taken and passed courses are left out, and that the module the student
+     * progressed furthest in comes first.
+     */
+    @Test
+    void testRecommendOrdersByModuleProgress() {
+        studentService.enrollToCourse("S001", courseService.getCourse("INTRO-WEB-1"));
+        studentService.enrollToCourse("S001", courseService.getCourse("INTRO-WEB-2"));
+        studentService.gradeStudentCourse("S001", "INTRO-WEB-1", 9.0);
+
+        List<Course> courses = recommender.recommend("S001");
+        assertEquals(List.of("INTRO-WEB-3", "INTRO-WEB-4", "INTRO-WEB-5", "INTRO-WEB-6", "INTRO-WEB-7",
+                        "INTRO-CS-1", "INTRO-CS-2", "INTRO-CS-3", "INTRO-CS-4", "INTRO-CS-5", "INTRO-CS-6", "INTRO-CS-7"),
+                courses.stream().map(Course::getCode).toList());
+        assertTrue(recommender.recommend("S999").isEmpty());
+    }
+
+    /**
+     * Tests that a module becomes eligible once its prerequisites are completed, for every
+     * student in a batch.
+     */
+    @Test
+    void testRecommendAllFollowsPrerequisites() {
+        for (int i = 1; i <= 7; i++) {
+            studentService.enrollToCourse("S002", courseService.getCourse("INTRO-WEB-" + i));
+            studentService.gradeStudentCourse("S002", "INTRO-WEB-" + i, 7.0);
+        }
+
+        Map<Student, List<Course>> all = recommender.recommendAll();
+        assertEquals(2, all.size());
+        assertFalse(all.get(studentService.findStudent("S001")).contains(advancedCourse));
+        assertEquals(14, all.get(studentService.findStudent("S001")).size());
+        assertTrue(all.get(studentService.findStudent("S002")).contains(advancedCourse));
+        assertEquals(8, all.get(studentService.findStudent("S002")).size());
+    }
+}
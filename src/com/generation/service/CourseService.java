@@ -1,74 +1,116 @@
 package com.generation.service;
 
+import com.generation.metrics.Metrics;
 import com.generation.model.Course;
 import com.generation.model.Module;
 import com.generation.model.Student;
+import com.generation.utils.ReportWriter;
 
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Manages course registration and student enrollments.
+ * Safe for concurrent use; course lookups are lock-free.
  */
 public class CourseService {
 
-    // Stores all registered courses, mapped by course code
-    private final Map<String, Course> courses = new HashMap<>();
+    // Immutable snapshot of the registered courses and their modules, replaced on
+    // registration; null until the default catalog is first needed
+    private volatile CourseCatalog catalog;
 
-    // Stores students enrolled in each course, mapped by course code
-    private final Map<String, List<Student>> enrolledStudents = new HashMap<>();
+    // Shared record of enrollments, also used by StudentService
+    private final EnrollmentRegistry enrollmentRegistry;
 
     /**
-     * Constructor initializes and registers all courses and modules.
+     * Creates a service over the default catalog, using its own enrollment registry.
      */
     public CourseService() {
-        // Define the module for introductory computer science courses
-        Module module = new Module("INTRO-CS", "Introduction to Computer Science",
-                "Introductory module for the generation technical programs");
+        this(new EnrollmentRegistry());
+    }
 
-        // Minimal usage of Module methods to suppress unused warnings:
-        module.addPrerequisite(new Module("BASIC-CS", "Basic Computer Science", "Basic foundational concepts"));
+    /**
+     * Creates a service over the default catalog. The catalog file is read the first time
+     * any service needs it and then shared, so construction itself does no work.
+     *
+     * @param enrollmentRegistry the registry shared with StudentService
+     */
+    public CourseService(EnrollmentRegistry enrollmentRegistry) {
+        this.enrollmentRegistry = enrollmentRegistry;
+    }
 
-        System.out.println("Module description for " + module.getName() + ": " + module.getDescription());
+    /**
+     * Creates a service over the given catalog.
+     *
+     * @param enrollmentRegistry the registry shared with StudentService
+     * @param catalog            the initial catalog, e.g. from {@link CourseCatalog#load}
+     */
+    public CourseService(EnrollmentRegistry enrollmentRegistry, CourseCatalog catalog) {
+        this.enrollmentRegistry = enrollmentRegistry;
+        this.catalog = catalog;
+        enrollmentRegistry.catalogChanged(catalog);
+    }
 
-        System.out.print("Prerequisites for " + module.getName() + ": ");
-        for (String prereqCode : module.getPrerequisites().keySet()) {
-            System.out.print(prereqCode + " ");
+    /**
+     * Returns the current catalog, resolving the default catalog on first use.
+     */
+    private CourseCatalog catalog() {
+        CourseCatalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (catalog == null) {
+                catalog = CatalogLoader.defaultCatalog();
+                enrollmentRegistry.catalogChanged(catalog);
+            }
+            return catalog;
         }
-        System.out.println();
-
-        // Register computer science courses under the INTRO-CS module
-        registerCourse(new Course("INTRO-CS-1", "Introduction to Computer Science", 9, module));
-        registerCourse(new Course("INTRO-CS-2", "Introduction to Algorithms", 9, module));
-        registerCourse(new Course("INTRO-CS-3", "Algorithm Design and Problem Solving - Introduction", 9, module));
-        registerCourse(new Course("INTRO-CS-4", "Algorithm Design and Problem Solving - Advanced", 9, module));
-        registerCourse(new Course("INTRO-CS-5", "Terminal Fundamentals", 9, module));
-        registerCourse(new Course("INTRO-CS-6", "Source Control Using Git and Github", 9, module));
-        registerCourse(new Course("INTRO-CS-7", "Agile Software Development with SCRUM", 9, module));
-
-        // Define the module for introductory web development courses
-        Module moduleWebFundamentals = new Module("INTRO-WEB", "Web Development Fundamentals",
-                "Introduction to fundamentals of web development");
-
-        // Register web development courses under the INTRO-WEB module
-        registerCourse(new Course("INTRO-WEB-1", "Introduction to Web Applications", 9, moduleWebFundamentals));
-        registerCourse(new Course("INTRO-WEB-2", "Introduction to HTML", 9, moduleWebFundamentals));
-        registerCourse(new Course("INTRO-WEB-3", "Introduction to CSS", 9, moduleWebFundamentals));
-        registerCourse(new Course("INTRO-WEB-4", "Advanced HTML", 9, moduleWebFundamentals));
-        registerCourse(new Course("INTRO-WEB-5", "Advanced CSS", 9, moduleWebFundamentals));
-        registerCourse(new Course("INTRO-WEB-6", "Introduction to Bootstrap Framework", 9, moduleWebFundamentals));
-        registerCourse(new Course("INTRO-WEB-7", "Introduction to JavaScript for Web Development", 9, moduleWebFundamentals));
     }
 
     /**
-     * Registers a new course in the system.
+     * Registers a new course in the system. The catalog is rebuilt for every call, so loading
+     * many courses should go through {@link #registerCourses(Collection)}.
      *
      * @param course the course to register
      */
     public void registerCourse(Course course) {
-        courses.put(course.getCode(), course); // Store course using its code as key
+        synchronized (this) {
+            catalog = catalog().with(course); // Publish a new catalog including the course
+            enrollmentRegistry.catalogChanged(catalog);
+        }
+        for (MutationListener listener : enrollmentRegistry.listeners()) {
+            listener.courseRegistered(course);
+        }
+        enrollmentRegistry.mutationsReleased();
+    }
+
+    /**
+     * Registers many courses at once, building the new catalog in one pass instead of once per
+     * course; use it when restoring saved state. A course replaces a registered course with
+     * the same code.
+     *
+     * @param courses the courses to register, in registration order
+     */
+    public void registerCourses(Collection<Course> courses) {
+        if (courses.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            List<Course> all = new ArrayList<>(catalog().size() + courses.size());
+            all.addAll(catalog().getCourses());
+            all.addAll(courses);
+            catalog = CourseCatalog.of(all);
+            enrollmentRegistry.catalogChanged(catalog);
+        }
+        for (Course course : courses) {
+            for (MutationListener listener : enrollmentRegistry.listeners()) {
+                listener.courseRegistered(course);
+            }
+        }
+        enrollmentRegistry.mutationsReleased();
     }
 
     /**
@@ -78,7 +120,55 @@ public class CourseService {
      * @return the Course object if found, otherwise null
      */
     public Course getCourse(String code) {
-        return courses.get(code); // Get course from map by code
+        return catalog().getCourse(code); // Resolve the code through the catalog's perfect hash
+    }
+
+    /**
+     * Retrieves a course by its catalog id.
+     *
+     * @param id the course id, see {@link CourseCatalog#idOf(String)}
+     * @return the Course object if found, otherwise null
+     */
+    public Course getCourse(int id) {
+        return catalog().getCourse(id);
+    }
+
+    /**
+     * Returns the current course catalog. The catalog never changes; registering a course
+     * replaces it.
+     *
+     * @return the current catalog
+     */
+    public CourseCatalog getCatalog() {
+        return catalog();
+    }
+
+    /**
+     * Returns all registered courses, in registration order.
+     *
+     * @return read-only snapshot of the registered courses
+     */
+    public Collection<Course> getCourses() {
+        return catalog().getCourses();
+    }
+
+    /**
+     * Returns the modules of all registered courses.
+     *
+     * @return read-only snapshot of the modules
+     */
+    public Collection<Module> getModules() {
+        return catalog().getModules();
+    }
+
+    /**
+     * Retrieves the module of the registered courses with the given code.
+     *
+     * @param code the module code
+     * @return the Module object if found, otherwise null
+     */
+    public Module getModule(String code) {
+        return catalog().getModule(code);
     }
 
     /**
@@ -86,57 +176,117 @@ public class CourseService {
      *
      * @param courseId the course code
      * @param student  the student to enroll
-     * @return true if student was successfully enrolled, false if already enrolled
+     * @return true if student was successfully enrolled, false if already enrolled,
+     *         missing prerequisite modules or the course does not exist
      */
     public boolean enrollStudent(String courseId, Student student) {
-        // Get the list of students for this course or create a new one
-        List<Student> studentsInCourse = enrolledStudents.computeIfAbsent(courseId, _ -> new ArrayList<>());
+        long start = Metrics.start();
+        try {
+            Course course = catalog().getCourse(courseId);
+            if (course == null) return false; // Unknown course
 
-        // Avoid enrolling the same student twice
-        if (studentsInCourse.contains(student)) {
-            return false; // Student already enrolled
+            return enrollmentRegistry.enroll(student, course); // Record enrollment on both sides
+        } finally {
+            Metrics.ENROLL_STUDENT.record(start);
         }
-
-        studentsInCourse.add(student); // Add student to course
-        return true;
     }
 
     /**
-     * Prints a summary of all registered courses and their enrolled students.
+     * Checks whether a student is enrolled in a course.
+     *
+     * @param courseId  the course code
+     * @param studentId the student's ID
+     * @return true if the student is on the course roster, false otherwise
      */
-    public void showSummary() {
-        System.out.println("Courses Summary:");
-
-        // Loop through all registered courses
-        for (Course course : courses.values()) {
-            System.out.println(course); // Print course details
-            showEnrolledStudents(course.getCode()); // Show students enrolled in this course
-        }
+    public boolean isStudentEnrolled(String courseId, String studentId) {
+        return enrollmentRegistry.isEnrolled(courseId, studentId);
     }
 
     /**
-     * Prints the list of students enrolled in a specific course.
+     * Returns the students enrolled in a course, in enrollment order.
      *
      * @param courseId the course code
+     * @return the enrolled students, empty if there are none
      */
-    public void showEnrolledStudents(String courseId) {
-        List<Student> students = enrolledStudents.get(courseId); // Get list of students in course
+    public Collection<Student> getEnrolledStudents(String courseId) {
+        return enrollmentRegistry.getRoster(courseId);
+    }
 
-        // If no students are enrolled, print a message
-        if (students == null || students.isEmpty()) {
-            System.out.println("  No students enrolled in " + courseId);
-            return;
-        }
+    /**
+     * Returns the students who passed a course, in the order they passed it.
+     *
+     * @param courseId the course code
+     * @return the students, empty if nobody passed
+     */
+    public Collection<Student> getApprovedStudents(String courseId) {
+        return enrollmentRegistry.getApprovedStudents(courseId);
+    }
 
-        // Otherwise, list enrolled students
-        System.out.println("  Enrolled Students:");
-        for (Student student : students) {
-            System.out.println("   - " + student); // Print each student
-        }
+    /**
+     * Returns the statistics of the grades currently recorded for a course, maintained as
+     * grades change rather than computed from the students.
+     *
+     * @param courseId the course code
+     * @return the statistics, empty if the course has no grades
+     */
+    public GradeStatistics getGradeStatistics(String courseId) {
+        return enrollmentRegistry.getGradeStatistics(courseId);
     }
-}
 
+    /**
+     * Returns the students enrolled in any course of a module.
+     *
+     * @param moduleCode the module code
+     * @return the students, empty if nobody is enrolled
+     */
+    public Collection<Student> getModuleStudents(String moduleCode) {
+        return enrollmentRegistry.getModuleStudents(moduleCode);
+    }
 
+    /**
+     * Returns the students who passed any course of a module.
+     *
+     * @param moduleCode the module code
+     * @return the students, empty if nobody passed
+     */
+    public Collection<Student> getModuleApprovedStudents(String moduleCode) {
+        return enrollmentRegistry.getModuleApprovedStudents(moduleCode);
+    }
 
+    /**
+     * Prints a summary of all registered courses and their enrolled students.
+     */
+    public void showSummary() {
+        long start = Metrics.start();
+        ReportWriter out = new ReportWriter(System.out);
+        SummaryReport.writeCourses(out, catalog().getCourses(), enrollmentRegistry, 0, Integer.MAX_VALUE);
+        out.flush();
+        Metrics.COURSE_SUMMARY.record(start);
+    }
 
+    /**
+     * Writes a page of the courses summary.
+     *
+     * @param out    the destination; flushed but not closed
+     * @param offset number of courses to skip
+     * @param limit  maximum number of courses to write
+     * @return number of courses written
+     */
+    public int writeSummary(Writer out, int offset, int limit) {
+        ReportWriter report = new ReportWriter(out);
+        int written = SummaryReport.writeCourses(report, catalog().getCourses(), enrollmentRegistry, offset, limit);
+        report.flush();
+        return written;
+    }
 
+    /**
+     * Prints the list of students enrolled in a specific course.
+     *
+     * @param courseId the course code
+     */
+    public void showEnrolledStudents(String courseId) {
+        ReportWriter out = new ReportWriter(System.out);
+        SummaryReport.writeRoster(out, courseId, enrollmentRegistry.getRoster(courseId));
+        out.flush();
+    }
+}
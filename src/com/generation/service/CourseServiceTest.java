@@ -1,9 +1,17 @@
 package com.generation.service;
 
+import com.generation.model.Course;
+import com.generation.model.Module;
 import com.generation.model.Student;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CourseServiceTest {
@@ -34,6 +42,100 @@ class CourseServiceTest {
         assertNull(courseService.getCourse("NON-EXISTENT"));
     }
 
+    /**
+     * Tests that every registered course resolves to its own catalog id, including after
+     * the catalog has grown well past the built-in courses and a course was replaced.
+     */
+    @Test
+    void testCatalogResolvesEveryCode() {
+        for (int i = 0; i < 2000; i++) {
+            courseService.registerCourse(new Course("EXTRA-" + i, "Extra course " + i, 3, null));
+        }
+        Course replacement = new Course("INTRO-CS-1", "Replacement", 9, null);
+        courseService.registerCourse(replacement);
+
+        CourseCatalog catalog = courseService.getCatalog();
+        assertEquals(2014, catalog.size());
+        for (Course course : catalog.getCourses()) {
+            int id = catalog.idOf(course.getCode());
+            assertSame(course, catalog.getCourse(id));
+            assertSame(course, courseService.getCourse(id));
+        }
+        assertSame(replacement, courseService.getCourse("INTRO-CS-1"));
+        assertEquals(-1, catalog.idOf("EXTRA-2000"));
+        assertNull(courseService.getCourse(2014));
+    }
+
+    /**
+     * Tests that courses registered in bulk are resolved like courses registered one by one,
+     * with a later course replacing an earlier one of the same code.
+     */
+    @Test
+    void testRegisterCoursesInBulk() {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            courses.add(new Course("BULK-" + i, "Bulk course " + i, 3, null));
+        }
+        Course replacement = new Course("INTRO-CS-2", "Replacement", 9, null);
+        courses.add(replacement);
+        courseService.registerCourses(courses);
+
+        CourseCatalog catalog = courseService.getCatalog();
+        assertEquals(20_014, catalog.size());
+        assertEquals("Bulk course 19999", courseService.getCourse("BULK-19999").getName());
+        assertSame(replacement, courseService.getCourse("INTRO-CS-2"));
+        for (Course course : catalog.getCourses()) {
+            assertSame(course, catalog.getCourse(catalog.idOf(course.getCode())));
+        }
+    }
+
+    /**
+     * Tests that services share the default catalog instead of building their own.
+     */
+    @Test
+    void testDefaultCatalogIsShared() {
+        CourseService other = new CourseService();
+        assertSame(courseService.getCourse("INTRO-WEB-3"), other.getCourse("INTRO-WEB-3"));
+        assertEquals(14, other.getCatalog().size());
+        assertTrue(other.getModule("INTRO-CS").getPrerequisites().containsKey("BASIC-CS"));
+
+        // Shared modules are frozen, so no service can change the graph of the others
+        Module introduction = other.getModule("INTRO-CS");
+        assertThrows(IllegalStateException.class, () -> introduction.addPrerequisite(new Module("X", "X", "")));
+        assertEquals(1, introduction.getPrerequisites().size());
+    }
+
+    /**
+     * Tests loading a catalog file with prerequisites, and that malformed lines are reported
+     * with their line number.
+     */
+    @Test
+    void testLoadCatalogFile() throws Exception {
+        StringBuilder text = new StringBuilder("""
+                # Test catalog
+                module BASE | Base | First module
+                module NEXT | Next | Second module
+                prerequisite NEXT | BASE
+                """);
+        for (int i = 0; i < 5000; i++) {
+            text.append("course C-").append(i).append(" | Course ").append(i).append(" | 3 | ")
+                    .append(i % 2 == 0 ? "BASE" : "NEXT").append('\n');
+        }
+        Path file = Files.createTempFile("catalog", ".txt");
+        Files.writeString(file, text);
+
+        CourseService loaded = new CourseService(new EnrollmentRegistry(), CourseCatalog.load(file));
+        assertEquals(5000, loaded.getCatalog().size());
+        assertEquals("Course 4999", loaded.getCourse("C-4999").getName());
+        assertNull(loaded.getCourse("INTRO-CS-1"));
+        assertTrue(loaded.getModule("NEXT").getPrerequisites().containsKey("BASE"));
+
+        Files.writeString(file, "module A | A | First\ncourse X | X | many | A\n");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> CourseCatalog.load(file));
+        assertTrue(error.getMessage().contains(":2: Invalid credits"));
+        Files.delete(file);
+    }
+
     /**
      * Tests enrolling a student to a course.
      * Verifies that enrolling a student succeeds the first time,
@@ -52,6 +154,192 @@ class CourseServiceTest {
         assertTrue(courseService.enrollStudent("INTRO-WEB-1", student));
     }
 
+    /**
+     * Tests that roster membership is based on student ID rather than object identity.
+     */
+    @Test
+    void testIsStudentEnrolled() {
+        assertFalse(courseService.isStudentEnrolled("INTRO-CS-1", student.getId()));
+        courseService.enrollStudent("INTRO-CS-1", student);
+        assertTrue(courseService.isStudentEnrolled("INTRO-CS-1", student.getId()));
+        assertFalse(courseService.isStudentEnrolled("INTRO-CS-2", student.getId()));
+
+        // A different object with the same ID is the same student
+        Student sameId = new Student(student.getId(), "John D.", "jd@example.com", null);
+        assertEquals(student, sameId);
+        assertFalse(courseService.enrollStudent("INTRO-CS-1", sameId));
+    }
+
+    /**
+     * Tests that an enrollment made through StudentService is visible on the course roster
+     * when both services share one registry.
+     */
+    @Test
+    void testSharedRegistryKeepsBothSidesInSync() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        CourseService sharedCourses = new CourseService(registry);
+        StudentService sharedStudents = new StudentService(registry);
+        sharedStudents.subscribeStudent(student);
+
+        assertTrue(sharedStudents.enrollToCourse(student.getId(), sharedCourses.getCourse("INTRO-CS-1")));
+        assertTrue(sharedCourses.isStudentEnrolled("INTRO-CS-1", student.getId()));
+        assertTrue(student.isAttendingCourse("INTRO-CS-1"));
+
+        // The same enrollment through the other service is a duplicate
+        assertFalse(sharedCourses.enrollStudent("INTRO-CS-1", student));
+    }
+
+    /**
+     * Tests that the pass and module indexes follow enrollments and grades, listing each
+     * student once however many courses of a module they take or pass.
+     */
+    @Test
+    void testPassAndModuleIndexes() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        CourseService sharedCourses = new CourseService(registry);
+        StudentService sharedStudents = new StudentService(registry);
+        Student other = new Student("S002", "Jane Roe", "jane@example.com", null);
+        sharedStudents.subscribeStudent(student);
+        sharedStudents.subscribeStudent(other);
+
+        sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("INTRO-CS-1"));
+        sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("INTRO-CS-2"));
+        sharedStudents.enrollToCourse("S002", sharedCourses.getCourse("INTRO-WEB-1"));
+        assertEquals(List.of(student), sharedCourses.getModuleStudents("INTRO-CS"));
+        assertEquals(List.of(other), sharedCourses.getModuleStudents("INTRO-WEB"));
+
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-1", 5.0);
+        assertTrue(sharedCourses.getApprovedStudents("INTRO-CS-1").isEmpty());
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-1", 8.0);
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-2", 9.0);
+        sharedStudents.gradeStudentCourse("S002", "INTRO-WEB-1", 3.0);
+
+        assertEquals(List.of(student), sharedCourses.getApprovedStudents("INTRO-CS-1"));
+        assertEquals(List.of(student), sharedCourses.getModuleApprovedStudents("INTRO-CS"));
+        assertTrue(sharedCourses.getModuleApprovedStudents("INTRO-WEB").isEmpty());
+        assertTrue(sharedCourses.getModuleStudents("UNKNOWN").isEmpty());
+    }
+
+    /**
+     * Tests that rosters and approved courses are shared read-only snapshots that are only
+     * replaced when they change.
+     */
+    @Test
+    void testReadViewsAreCachedSnapshots() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        CourseService sharedCourses = new CourseService(registry);
+        StudentService sharedStudents = new StudentService(registry);
+        sharedStudents.subscribeStudent(student);
+        sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("INTRO-CS-1"));
+        sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("INTRO-CS-2"));
+
+        Collection<Student> roster = sharedCourses.getEnrolledStudents("INTRO-CS-1");
+        assertSame(roster, sharedCourses.getEnrolledStudents("INTRO-CS-1"));
+        assertThrows(UnsupportedOperationException.class, () -> roster.add(student));
+        Student other = new Student("S002", "Jane Roe", "jane@example.com", null);
+        sharedStudents.subscribeStudent(other);
+        sharedStudents.enrollToCourse("S002", sharedCourses.getCourse("INTRO-CS-1"));
+        assertEquals(List.of(student), roster);
+        assertEquals(List.of(student, other), sharedCourses.getEnrolledStudents("INTRO-CS-1"));
+
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-1", 8.0);
+        List<Course> approved = student.getApprovedCourses();
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-1", 9.0); // Already approved
+        assertSame(approved, student.findPassedCourses());
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-2", 7.0);
+        assertEquals(1, approved.size());
+        assertEquals(2, student.getApprovedCourses().size());
+        assertThrows(UnsupportedOperationException.class, () -> student.getApprovedCourses().clear());
+    }
+
+    /**
+     * Tests that course statistics follow new and overwritten grades without counting a
+     * student twice.
+     */
+    @Test
+    void testGradeStatisticsFollowGradeChanges() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        CourseService sharedCourses = new CourseService(registry);
+        StudentService sharedStudents = new StudentService(registry);
+        Student other = new Student("S002", "Jane Roe", "jane@example.com", null);
+        sharedStudents.subscribeStudent(student);
+        sharedStudents.subscribeStudent(other);
+        sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("INTRO-CS-1"));
+        sharedStudents.enrollToCourse("S002", sharedCourses.getCourse("INTRO-CS-1"));
+
+        GradeStatistics empty = sharedCourses.getGradeStatistics("INTRO-CS-1");
+        assertEquals(0, empty.getCount());
+        assertTrue(Double.isNaN(empty.getMean()));
+
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-1", 4.0);
+        sharedStudents.gradeStudentCourse("S002", "INTRO-CS-1", 10.0);
+        sharedStudents.gradeStudentCourse("S001", "INTRO-CS-1", 6.0); // Replaces the 4.0
+
+        GradeStatistics stats = sharedCourses.getGradeStatistics("INTRO-CS-1");
+        assertEquals(2, stats.getCount());
+        assertEquals(8.0, stats.getMean(), 1e-9);
+        assertEquals(2.0, stats.getStandardDeviation(), 1e-9);
+        assertEquals(1.0, stats.getPassRate(), 0.0);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0, 1, 0, 0, 1}, stats.getHistogram());
+        assertEquals(0, sharedCourses.getGradeStatistics("INTRO-CS-2").getCount());
+    }
+
+    /**
+     * Tests that enrollment requires every transitive prerequisite module to be completed,
+     * and that modules without courses do not block it.
+     */
+    @Test
+    void testEnrollmentRequiresPrerequisiteModules() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        CourseService sharedCourses = new CourseService(registry);
+        StudentService sharedStudents = new StudentService(registry);
+        sharedStudents.subscribeStudent(student);
+
+        Module web = sharedCourses.getModule("INTRO-WEB");
+        Module advanced = new Module("ADV-WEB", "Advanced Web", "Follows the web fundamentals");
+        advanced.addPrerequisite(web);
+        Module capstone = new Module("CAPSTONE", "Capstone", "Final project");
+        capstone.addPrerequisite(advanced);
+        sharedCourses.registerCourse(new Course("ADV-WEB-1", "Web APIs", 9, advanced));
+        Course project = new Course("CAPSTONE-1", "Final Project", 12, capstone);
+        sharedCourses.registerCourse(project);
+
+        // INTRO-CS depends on BASIC-CS, which has no courses
+        assertTrue(sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("INTRO-CS-1")));
+
+        assertFalse(sharedStudents.enrollToCourse("S001", project));
+        assertEquals(List.of(advanced, web), sharedStudents.getMissingPrerequisites("S001", project));
+
+        for (int i = 1; i <= 7; i++) {
+            sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("INTRO-WEB-" + i));
+            sharedStudents.gradeStudentCourse("S001", "INTRO-WEB-" + i, i == 7 ? 5.0 : 8.0);
+        }
+        assertEquals(List.of(advanced, web), sharedStudents.getMissingPrerequisites("S001", project));
+        sharedStudents.gradeStudentCourse("S001", "INTRO-WEB-7", 6.0);
+        assertEquals(List.of(advanced), sharedStudents.getMissingPrerequisites("S001", project));
+
+        assertTrue(sharedStudents.enrollToCourse("S001", sharedCourses.getCourse("ADV-WEB-1")));
+        sharedStudents.gradeStudentCourse("S001", "ADV-WEB-1", 7.0);
+        assertTrue(sharedStudents.enrollToCourse("S001", project));
+    }
+
+    /**
+     * Tests that a prerequisite closing a cycle in the module graph is rejected.
+     */
+    @Test
+    void testPrerequisiteCycleIsRejected() {
+        Module first = new Module("M1", "First", "");
+        Module second = new Module("M2", "Second", "");
+        Module third = new Module("M3", "Third", "");
+        second.addPrerequisite(first);
+        third.addPrerequisite(second);
+
+        assertThrows(IllegalArgumentException.class, () -> first.addPrerequisite(third));
+        assertThrows(IllegalArgumentException.class, () -> first.addPrerequisite(first));
+        assertFalse(first.getPrerequisiteIndexes().get(third.getIndex()));
+        assertTrue(third.getPrerequisiteIndexes().get(first.getIndex()));
+    }
+
     /**
      * Tests that the showSummary method runs without exceptions.
      * This method prints all courses and enrolled students.
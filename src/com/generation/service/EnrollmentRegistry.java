@@ -0,0 +1,347 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Module;
+import com.generation.model.Student;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single place where enrollments are recorded, shared by StudentService and CourseService.
+ * The course-to-students index (rosters) lives here, and the student-to-courses index is the
+ * enrolled course map of each Student; both sides are written by one enroll operation.
+ * <p>
+ * The registry also keeps secondary indexes written alongside enrollments and approvals:
+ * the students who passed each course, and the students enrolled in or with a passed course
+ * in each module, so reports on them cost time proportional to the result. Running grade
+ * statistics of each course are updated with every grade change.
+ * <p>
+ * Enrollment requires the student to have completed every module the course's module
+ * depends on, directly or transitively. A student completes a module by passing all of its
+ * courses in the catalog of the CourseService sharing this registry; modules without courses
+ * in the catalog count as completed, so a registry without a CourseService enforces nothing.
+ * <p>
+ * The registry also owns the per-student lock stripes: every mutation of a Student made
+ * through the services runs under the stripe of its ID, while lookups take no lock.
+ * Mutation listeners registered here are notified of changes made through either service.
+ */
+public class EnrollmentRegistry {
+
+    // Students enrolled in each course, mapped by course code
+    private final Map<String, Roster> rosters = new ConcurrentHashMap<>();
+
+    // Students who passed each course, mapped by course code
+    private final Map<String, Roster> approvals = new ConcurrentHashMap<>();
+
+    // Students enrolled in any course of each module, mapped by module code
+    private final Map<String, Roster> moduleEnrollments = new ConcurrentHashMap<>();
+
+    // Students who passed any course of each module, mapped by module code
+    private final Map<String, Roster> moduleApprovals = new ConcurrentHashMap<>();
+
+    // Running grade aggregates of each graded course, mapped by course code
+    private final Map<String, GradeAccumulator> gradeStatistics = new ConcurrentHashMap<>();
+
+    // Catalog of the CourseService sharing this registry
+    private volatile CourseCatalog catalog = CourseCatalog.EMPTY;
+
+    // Serializes mutations of the same student across enrollment and grading
+    private final StripedLocks studentLocks = new StripedLocks();
+
+    // Notified of every mutation made through the services
+    private final List<MutationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Enrolls a student in a course, updating the course roster and the student's
+     * own course list together.
+     *
+     * @param student the student to enroll
+     * @param course  the course to enroll in
+     * @return true if the student was enrolled, false if already enrolled or missing
+     *         prerequisite modules
+     */
+    public boolean enroll(Student student, Course course) {
+        ReentrantLock lock = lockFor(student.getId());
+        lock.lock();
+        try {
+            Roster roster = rosters.computeIfAbsent(course.getCode(), _ -> new Roster());
+            if (roster.contains(student.getId())) {
+                return false; // Student already on the roster
+            }
+            if (!missingPrerequisites(student, course).isEmpty()) {
+                return false;
+            }
+            roster.add(student);
+            student.enrollToCourse(course);
+            if (course.getModule() != null) {
+                add(moduleEnrollments, course.getModule().getCode(), student);
+            }
+            for (MutationListener listener : listeners) {
+                listener.studentEnrolled(student, course);
+            }
+        } finally {
+            lock.unlock();
+        }
+        mutationsReleased();
+        return true;
+    }
+
+    /**
+     * Checks whether a student is enrolled in a course.
+     *
+     * @param courseCode the course code
+     * @param studentId  the student's ID
+     * @return true if the student is on the course roster, false otherwise
+     */
+    public boolean isEnrolled(String courseCode, String studentId) {
+        Roster roster = rosters.get(courseCode);
+        return roster != null && roster.contains(studentId);
+    }
+
+    /**
+     * Returns the students enrolled in a course, in enrollment order.
+     *
+     * @param courseCode the course code
+     * @return read-only snapshot of the roster, empty if nobody is enrolled; unchanged by
+     *         later enrollments
+     */
+    public Collection<Student> getRoster(String courseCode) {
+        Roster roster = rosters.get(courseCode);
+        return roster == null ? Collections.emptyList() : roster.students();
+    }
+
+    /**
+     * Records that a student passed a course. Must be called with the student's lock held.
+     *
+     * @param student the student
+     * @param course  the passed course
+     */
+    void approved(Student student, Course course) {
+        add(approvals, course.getCode(), student);
+        Module module = course.getModule();
+        if (module != null) {
+            add(moduleApprovals, module.getCode(), student);
+            if (!student.hasCompletedModule(module) && countApproved(student, module) >= catalog.courseCount(module)) {
+                student.completeModule(module);
+            }
+        }
+    }
+
+    /**
+     * Forgets a student that was replaced by another with the same ID: drops it from the
+     * rosters, the approval and module indexes and the grade statistics, so the new student
+     * starts out like one that was never registered. Must be called with the student's lock
+     * held.
+     *
+     * @param student the replaced student
+     */
+    void removed(Student student) {
+        String id = student.getId();
+        for (Course course : student.getEnrolledCourses()) {
+            remove(rosters, course.getCode(), id);
+            if (course.getModule() != null) {
+                remove(moduleEnrollments, course.getModule().getCode(), id);
+            }
+            double grade = student.getGrade(course.getCode());
+            GradeAccumulator accumulator = gradeStatistics.get(course.getCode());
+            if (!Double.isNaN(grade) && accumulator != null) {
+                accumulator.remove(grade);
+            }
+        }
+        for (Course course : student.getApprovedCourses()) {
+            remove(approvals, course.getCode(), id);
+            if (course.getModule() != null) {
+                remove(moduleApprovals, course.getModule().getCode(), id);
+            }
+        }
+    }
+
+    /**
+     * Records a grade change in the statistics of its course. Must be called with the
+     * student's lock held, so the previous grade is still current.
+     *
+     * @param courseCode the graded course code
+     * @param previous   the student's previous grade for the course, or NaN if there was none
+     * @param grade      the new grade
+     */
+    void graded(String courseCode, double previous, double grade) {
+        gradeStatistics.computeIfAbsent(courseCode, _ -> new GradeAccumulator()).replace(previous, grade);
+    }
+
+    /**
+     * Returns the statistics of the grades currently recorded for a course.
+     *
+     * @param courseCode the course code
+     * @return the statistics, empty if the course has no grades
+     */
+    public GradeStatistics getGradeStatistics(String courseCode) {
+        GradeAccumulator accumulator = gradeStatistics.get(courseCode);
+        return accumulator == null ? GradeStatistics.EMPTY : accumulator.snapshot();
+    }
+
+    private static int countApproved(Student student, Module module) {
+        int count = 0;
+        for (Course approved : student.getApprovedCourses()) {
+            if (approved.getModule() == module) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the prerequisite modules a student has yet to complete before enrolling in a
+     * course.
+     *
+     * @param student the student
+     * @param course  the course
+     * @return the missing modules, empty if the student may enroll
+     */
+    public List<Module> getMissingPrerequisites(Student student, Course course) {
+        BitSet missing = missingPrerequisites(student, course);
+        if (missing.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Module> modules = new ArrayList<>();
+        for (Module module : course.getModule().getAllPrerequisites()) {
+            if (missing.get(module.getIndex())) {
+                modules.add(module);
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * @return indexes of the prerequisite modules of the course the student still has to
+     *         complete: the course module's closure, minus the completed modules, restricted
+     *         to modules with courses in the catalog
+     */
+    private BitSet missingPrerequisites(Student student, Course course) {
+        Module module = course.getModule();
+        if (module == null) {
+            return new BitSet();
+        }
+        BitSet missing = student.findMissingPrerequisites(module);
+        missing.and(catalog.getModulesWithCourses());
+        return missing;
+    }
+
+    /**
+     * Uses a new catalog for module completion. Called by the CourseService sharing this
+     * registry whenever its catalog changes.
+     *
+     * @param catalog the current catalog
+     */
+    void catalogChanged(CourseCatalog catalog) {
+        this.catalog = Objects.requireNonNull(catalog);
+    }
+
+    /**
+     * Returns the students who passed a course, in the order they passed it.
+     *
+     * @param courseCode the course code
+     * @return the students, empty if nobody passed
+     */
+    public Collection<Student> getApprovedStudents(String courseCode) {
+        return members(approvals, courseCode);
+    }
+
+    /**
+     * Returns the students enrolled in any course of a module, in the order of their first
+     * enrollment in it.
+     *
+     * @param moduleCode the module code
+     * @return the students, empty if nobody is enrolled
+     */
+    public Collection<Student> getModuleStudents(String moduleCode) {
+        return members(moduleEnrollments, moduleCode);
+    }
+
+    /**
+     * Returns the students who passed any course of a module, in the order of their first
+     * pass in it.
+     *
+     * @param moduleCode the module code
+     * @return the students, empty if nobody passed
+     */
+    public Collection<Student> getModuleApprovedStudents(String moduleCode) {
+        return members(moduleApprovals, moduleCode);
+    }
+
+    private static void add(Map<String, Roster> index, String code, Student student) {
+        index.computeIfAbsent(code, _ -> new Roster()).add(student);
+    }
+
+    private static void remove(Map<String, Roster> index, String code, String studentId) {
+        Roster roster = index.get(code);
+        if (roster != null) {
+            roster.remove(studentId);
+        }
+    }
+
+    private static Collection<Student> members(Map<String, Roster> index, String code) {
+        Roster roster = index.get(code);
+        return roster == null ? Collections.emptyList() : roster.students();
+    }
+
+    /**
+     * Returns the courses a student is enrolled in, in enrollment order.
+     *
+     * @param student the student
+     * @return the student's enrolled courses
+     */
+    public Collection<Course> getCourses(Student student) {
+        return student.getEnrolledCourses();
+    }
+
+    /**
+     * Returns the lock that serializes mutations of the given student.
+     *
+     * @param studentId the student's ID
+     * @return the lock stripe for that student
+     */
+    ReentrantLock lockFor(String studentId) {
+        return studentLocks.lockFor(studentId);
+    }
+
+    /**
+     * Registers a listener for mutations made through the services sharing this registry.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(MutationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(MutationListener listener) {
+        listeners.remove(listener);
+    }
+
+    List<MutationListener> listeners() {
+        return listeners;
+    }
+
+    /**
+     * Tells the listeners that the calling thread released the locks it held while reporting
+     * mutations. Called by the services before a mutating call returns.
+     */
+    void mutationsReleased() {
+        for (MutationListener listener : listeners) {
+            listener.mutationsReleased();
+        }
+    }
+}
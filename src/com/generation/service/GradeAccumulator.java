@@ -0,0 +1,64 @@
+package com.generation.service;
+
+import com.generation.model.Student;
+
+/**
+ * Running grade aggregates of one course, updated in constant time for every grade change,
+ * so course statistics never need a pass over the students.
+ * <p>
+ * Updates for different students of the same course can arrive concurrently; the monitor is
+ * held only for the few arithmetic operations of one change.
+ */
+class GradeAccumulator {
+
+    private int count;
+
+    private double sum;
+
+    private double sumOfSquares;
+
+    private int passed;
+
+    private final int[] histogram = new int[GradeStatistics.BUCKETS];
+
+    /**
+     * Replaces one student's grade in the aggregates.
+     *
+     * @param previous the student's previous grade for the course, or NaN if there was none
+     * @param grade    the new grade
+     */
+    synchronized void replace(double previous, double grade) {
+        if (!Double.isNaN(previous)) {
+            remove(previous);
+        }
+        count++;
+        sum += grade;
+        sumOfSquares += grade * grade;
+        if (grade >= Student.PASSING_GRADE) {
+            passed++;
+        }
+        histogram[GradeStatistics.bucketOf(grade)]++;
+    }
+
+    /**
+     * Removes one student's grade from the aggregates, e.g. when the student is replaced.
+     *
+     * @param grade the grade to remove
+     */
+    synchronized void remove(double grade) {
+        count--;
+        sum -= grade;
+        sumOfSquares -= grade * grade;
+        if (grade >= Student.PASSING_GRADE) {
+            passed--;
+        }
+        histogram[GradeStatistics.bucketOf(grade)]--;
+    }
+
+    /**
+     * @return the current aggregates
+     */
+    synchronized GradeStatistics snapshot() {
+        return new GradeStatistics(count, sum, sumOfSquares, passed, histogram.clone());
+    }
+}
@@ -0,0 +1,298 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Student;
+import com.generation.service.ImportReport.Reason;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loads grades in bulk from a CSV file of {@code studentId,courseCode,grade} rows.
+ * <p>
+ * The file is memory-mapped and parsed in place: grades are parsed straight from the bytes,
+ * and student and course fields are resolved through a per-import cache, so a String is only
+ * created the first time an ID is seen. Rows get the same checks as interactive grading
+ * (known student and course, grade within 0.0 - 10.0, student enrolled in the course) and
+ * valid rows are applied in batches. Rejected rows are collected in an {@link ImportReport}.
+ * An optional header line is skipped.
+ */
+public class GradeImporter {
+
+    // Default number of valid rows applied per batch
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    // Default number of rejected rows kept in detail in the report
+    public static final int DEFAULT_MAX_ERRORS = 1000;
+
+    // Size of each mapped region of the input file
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // Exact powers of ten for parsing grades with up to 15 fraction digits
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final StudentService studentService;
+
+    private final CourseService courseService;
+
+    private final int batchSize;
+
+    private final int maxErrors;
+
+    /**
+     * Creates an importer with the default batch size and error limit.
+     *
+     * @param studentService the service grades are recorded in
+     * @param courseService  the service courses are resolved from
+     */
+    public GradeImporter(StudentService studentService, CourseService courseService) {
+        this(studentService, courseService, DEFAULT_BATCH_SIZE, DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param studentService the service grades are recorded in
+     * @param courseService  the service courses are resolved from
+     * @param batchSize      number of valid rows applied per batch
+     * @param maxErrors      number of rejected rows kept in detail in the report
+     */
+    public GradeImporter(StudentService studentService, CourseService courseService, int batchSize, int maxErrors) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports all grades in the given file.
+     *
+     * @param file the CSV file to read
+     * @return the report of applied and rejected rows
+     * @throws IOException if the file cannot be read, or a line is longer than the mapping window
+     */
+    public ImportReport importGrades(Path file) throws IOException {
+        Run run = new Run();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(WINDOW_SIZE, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = run.parse(window, last);
+                if (consumed == 0) {
+                    throw new IOException("Line " + (run.lineNumber + 1) + " is longer than " + WINDOW_SIZE + " bytes");
+                }
+                position += consumed;
+            }
+        }
+        run.flush();
+        return run.report;
+    }
+
+    /**
+     * State of a single import.
+     */
+    private class Run {
+
+        private final ImportReport report = new ImportReport(maxErrors);
+
+        private final ByteSliceCache<Student> studentCache = new ByteSliceCache<>(studentService::findStudent);
+
+        private final ByteSliceCache<Course> courseCache = new ByteSliceCache<>(courseService::getCourse);
+
+        private final Student[] batchStudents = new Student[batchSize];
+
+        private final String[] batchCourses = new String[batchSize];
+
+        private final double[] batchGrades = new double[batchSize];
+
+        private int batchCount;
+
+        private long lineNumber;
+
+        /**
+         * Parses every complete line in the window; at the end of the file the last line
+         * does not need a line terminator.
+         *
+         * @return number of bytes consumed
+         */
+        int parse(ByteBuffer window, boolean last) {
+            int limit = window.limit();
+            int start = 0;
+            for (int i = 0; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    parseLine(window, start, i);
+                    start = i + 1;
+                }
+            }
+            if (last && start < limit) {
+                parseLine(window, start, limit);
+                start = limit;
+            }
+            return start;
+        }
+
+        private void parseLine(ByteBuffer buffer, int start, int end) {
+            lineNumber++;
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (isBlank(buffer, start, end)) {
+                return;
+            }
+
+            int firstComma = indexOf(buffer, start, end);
+            int secondComma = firstComma < 0 ? -1 : indexOf(buffer, firstComma + 1, end);
+            double grade = secondComma < 0 || indexOf(buffer, secondComma + 1, end) >= 0
+                    ? Double.NaN
+                    : parseGrade(buffer, secondComma + 1, end);
+
+            if (Double.isNaN(grade) && lineNumber == 1) {
+                return; // Header line
+            }
+            report.rowRead();
+            if (Double.isNaN(grade)) {
+                reject(Reason.MALFORMED_ROW, buffer, start, end);
+                return;
+            }
+            if (grade < 0.0 || grade > 10.0) {
+                reject(Reason.GRADE_OUT_OF_RANGE, buffer, start, end);
+                return;
+            }
+
+            Student student = resolve(studentCache, buffer, start, firstComma);
+            if (student == null) {
+                reject(Reason.UNKNOWN_STUDENT, buffer, start, end);
+                return;
+            }
+            Course course = resolve(courseCache, buffer, firstComma + 1, secondComma);
+            if (course == null) {
+                reject(Reason.UNKNOWN_COURSE, buffer, start, end);
+                return;
+            }
+            if (!student.isAttendingCourse(course.getCode())) {
+                reject(Reason.NOT_ENROLLED, buffer, start, end);
+                return;
+            }
+
+            batchStudents[batchCount] = student;
+            batchCourses[batchCount] = course.getCode();
+            batchGrades[batchCount] = grade;
+            if (++batchCount == batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Applies the pending batch of valid rows.
+         */
+        void flush() {
+            if (batchCount == 0) {
+                return;
+            }
+            studentService.gradeBatch(batchStudents, batchCourses, batchGrades, batchCount);
+            report.applied(batchCount);
+            batchCount = 0;
+        }
+
+        private void reject(Reason reason, ByteBuffer buffer, int start, int end) {
+            byte[] row = new byte[end - start];
+            buffer.get(start, row);
+            report.reject(lineNumber, reason, new String(row, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static <V> V resolve(ByteSliceCache<V> cache, ByteBuffer buffer, int start, int end) {
+        start = trimStart(buffer, start, end);
+        return cache.get(buffer, start, trimEnd(buffer, start, end));
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        return trimStart(buffer, start, end) == end;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimStart(ByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int start, int end) {
+        while (end > start && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Parses a grade from the bytes. Plain decimal numbers of up to 15 digits ({@code 7},
+     * {@code 7.25}, {@code -1.5}) are parsed in place; anything else, such as longer numbers
+     * or exponents, falls back to {@link Double#parseDouble}.
+     *
+     * @return the value, or NaN if the field is not a number
+     */
+    private static double parseGrade(ByteBuffer buffer, int start, int end) {
+        start = trimStart(buffer, start, end);
+        end = trimEnd(buffer, start, end);
+        int first = start;
+        boolean negative = start < end && buffer.get(start) == '-';
+        if (negative) {
+            start++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9' && digits < 15) {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                return parseGradeSlowly(buffer, first, end);
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        // Both operands are exact, so the division is correctly rounded like Double.parseDouble
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static double parseGradeSlowly(ByteBuffer buffer, int start, int end) {
+        byte[] field = new byte[end - start];
+        buffer.get(start, field);
+        try {
+            return Double.parseDouble(new String(field, StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.generation.service;
+
+import com.generation.model.Student;
+import com.generation.service.ImportReport.Reason;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeImporterTest {
+
+    private StudentService studentService;
+    private CourseService courseService;
+    private Student student;
+
+    /**
+     * Sets up services sharing one registry and a student enrolled in two courses.
+     */
+    @BeforeEach
+    void setUp() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        courseService = new CourseService(registry);
+        studentService = new StudentService(registry);
+
+        student = new Student("S001", "John Doe", "john@example.com", null);
+        studentService.subscribeStudent(student);
+        studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-1"));
+        studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-2"));
+    }
+
+    /**
+     * Tests that valid rows are applied and every invalid row is reported with its reason.
+     */
+    @Test
+    void testImportAppliesValidRowsAndReportsInvalidOnes() throws Exception {
+        Path file = Files.createTempFile("grades", ".csv");
+        Files.writeString(file, """
+                studentId,courseCode,grade
+                S001,INTRO-CS-1,8.5
+                S001, INTRO-CS-2 ,5\r
+                S001,INTRO-CS-3,7.0
+
+                S999,INTRO-CS-1,7.0
+                S001,NO-SUCH-COURSE,7.0
+                S001,INTRO-CS-1,10.5
+                S001,INTRO-CS-1
+                S001,INTRO-CS-2,6.25""");
+
+        ImportReport report = new GradeImporter(studentService, courseService, 2, 100).importGrades(file);
+
+        assertEquals(8, report.getRowsRead());
+        assertEquals(3, report.getApplied());
+        assertEquals(5, report.getRejected());
+
+        List<ImportReport.ImportError> errors = report.getErrors();
+        assertEquals(Reason.NOT_ENROLLED, errors.get(0).reason());
+        assertEquals(4, errors.get(0).line());
+        assertEquals(Reason.UNKNOWN_STUDENT, errors.get(1).reason());
+        assertEquals(Reason.UNKNOWN_COURSE, errors.get(2).reason());
+        assertEquals(Reason.GRADE_OUT_OF_RANGE, errors.get(3).reason());
+        assertEquals(Reason.MALFORMED_ROW, errors.get(4).reason());
+        assertEquals("S001,INTRO-CS-1", errors.get(4).row());
+
+        // The last grade for INTRO-CS-2 overwrites the earlier failing one
+        assertEquals((8.5 + 6.25) / 2, student.getAverage(), 0.001);
+        assertTrue(student.isCourseApproved("INTRO-CS-1"));
+        assertTrue(student.isCourseApproved("INTRO-CS-2"));
+        Files.delete(file);
+    }
+
+    /**
+     * Tests that grades the in-place parser does not handle are parsed like
+     * {@link Double#parseDouble} instead of being rejected.
+     */
+    @Test
+    void testImportParsesLongAndExponentGrades() throws Exception {
+        Path file = Files.createTempFile("grades", ".csv");
+        Files.writeString(file, """
+                S001,INTRO-CS-1,7.0000000000000001
+                S001,INTRO-CS-2,six
+                S001,INTRO-CS-2,6.5e0
+                """);
+
+        ImportReport report = new GradeImporter(studentService, courseService, 2, 100).importGrades(file);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getApplied());
+        assertEquals(Reason.MALFORMED_ROW, report.getErrors().get(0).reason());
+        assertEquals(Double.parseDouble("7.0000000000000001"), student.getGrade("INTRO-CS-1"));
+        assertEquals(6.5, student.getGrade("INTRO-CS-2"));
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,115 @@
+package com.generation.service;
+
+import com.generation.model.Student;
+
+import java.util.Arrays;
+
+/**
+ * Immutable summary of the grades currently recorded for one course: count, mean, spread,
+ * pass rate and a distribution over ten buckets of one point each, [0, 1) up to [9, 10].
+ * Obtained from {@link CourseService#getGradeStatistics(String)}.
+ */
+public final class GradeStatistics {
+
+    /**
+     * Number of histogram buckets.
+     */
+    public static final int BUCKETS = 10;
+
+    // The course without grades
+    static final GradeStatistics EMPTY = new GradeStatistics(0, 0.0, 0.0, 0, new int[BUCKETS]);
+
+    private final int count;
+
+    private final double sum;
+
+    private final double sumOfSquares;
+
+    private final int passed;
+
+    private final int[] histogram;
+
+    GradeStatistics(int count, double sum, double sumOfSquares, int passed, int[] histogram) {
+        this.count = count;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+        this.passed = passed;
+        this.histogram = histogram;
+    }
+
+    /**
+     * @param grade a grade from 0 to 10
+     * @return the histogram bucket of the grade
+     */
+    static int bucketOf(double grade) {
+        return Math.clamp((int) grade, 0, BUCKETS - 1);
+    }
+
+    /**
+     * @return number of graded students
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return sum of the grades
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return mean grade, NaN if there are no grades
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * @return population standard deviation of the grades, NaN if there are no grades
+     */
+    public double getStandardDeviation() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double mean = sum / count;
+        // Rounding can leave a tiny negative variance when all grades are equal
+        return Math.sqrt(Math.max(0.0, sumOfSquares / count - mean * mean));
+    }
+
+    /**
+     * @return number of grades at or above {@link Student#PASSING_GRADE}
+     */
+    public int getPassCount() {
+        return passed;
+    }
+
+    /**
+     * @return fraction of the grades at or above the passing grade, NaN if there are no grades
+     */
+    public double getPassRate() {
+        return count == 0 ? Double.NaN : (double) passed / count;
+    }
+
+    /**
+     * @param bucket the bucket, 0 for grades in [0, 1) up to 9 for grades in [9, 10]
+     * @return number of grades in the bucket
+     */
+    public int getBucketCount(int bucket) {
+        return histogram[bucket];
+    }
+
+    /**
+     * @return number of grades in each bucket
+     */
+    public int[] getHistogram() {
+        return histogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "GradeStatistics{count=" + count + ", mean=" + getMean() + ", stddev=" + getStandardDeviation()
+                + ", passRate=" + getPassRate() + ", histogram=" + Arrays.toString(histogram) + "}";
+    }
+}
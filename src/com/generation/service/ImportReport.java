@@ -0,0 +1,106 @@
+package com.generation.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were read and applied, and why each rejected
+ * row was rejected. Only the first {@code maxErrors} problems are kept in detail; the
+ * rejected count always covers every row.
+ */
+public class ImportReport {
+
+    /**
+     * Why a row was rejected.
+     */
+    public enum Reason {
+        MALFORMED_ROW,
+        GRADE_OUT_OF_RANGE,
+        UNKNOWN_STUDENT,
+        UNKNOWN_COURSE,
+        NOT_ENROLLED,
+        INVALID_EMAIL,
+        INVALID_DATE,
+        DUPLICATE_STUDENT
+    }
+
+    /**
+     * A rejected row.
+     *
+     * @param line   1-based line number in the input
+     * @param reason why the row was rejected
+     * @param row    the row text as read
+     */
+    public record ImportError(long line, Reason reason, String row) {
+    }
+
+    private final int maxErrors;
+
+    private final List<ImportError> errors = new ArrayList<>();
+
+    private long rowsRead;
+
+    private long applied;
+
+    private long rejected;
+
+    ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void applied(int count) {
+        applied += count;
+    }
+
+    void reject(long line, Reason reason, String row) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportError(line, reason, row));
+        }
+    }
+
+    /**
+     * @return number of data rows read, excluding blank lines and the header
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * @return number of rows applied to the services
+     */
+    public long getApplied() {
+        return applied;
+    }
+
+    /**
+     * @return number of rows rejected
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return the rejected rows, in input order, up to the configured limit
+     */
+    public List<ImportError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return true if no row was rejected
+     */
+    public boolean isSuccessful() {
+        return rejected == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{rowsRead=" + rowsRead + ", applied=" + applied + ", rejected=" + rejected + '}';
+    }
+}
@@ -0,0 +1,232 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Instructor;
+import com.generation.model.Student;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages instructors and their course assignments.
+ * <p>
+ * Assignments are indexed both ways: each Instructor lists the courses it teaches, and the
+ * service keeps the instructors of each course. Workloads (credits taught and students
+ * enrolled across the instructor's courses) are counters kept up to date as assignments
+ * change and, through a {@link MutationListener} on the shared registry, as students enroll,
+ * so queries never recount. Create the service before enrollments start: enrollments made
+ * earlier are only counted through the roster size when a course is first assigned.
+ */
+public class InstructorService {
+
+    // Stores all registered instructors, mapped by instructor ID
+    private final Map<String, Instructor> instructors = new ConcurrentHashMap<>();
+
+    // Staff and enrollment count of each course with assignments, mapped by course code
+    private final Map<String, CourseStaff> staff = new ConcurrentHashMap<>();
+
+    // Workload counters of each instructor, mapped by instructor ID
+    private final Map<String, Workload> workloads = new ConcurrentHashMap<>();
+
+    // Shared record of enrollments, read for course rosters
+    private final EnrollmentRegistry enrollmentRegistry;
+
+    /**
+     * Creates a service that follows the enrollments recorded in the given registry.
+     *
+     * @param enrollmentRegistry the registry shared with StudentService and CourseService
+     */
+    public InstructorService(EnrollmentRegistry enrollmentRegistry) {
+        this.enrollmentRegistry = enrollmentRegistry;
+        enrollmentRegistry.addListener(new EnrollmentCounter());
+    }
+
+    /**
+     * Registers an instructor in the system.
+     *
+     * @param instructor the instructor to register
+     * @return true if registered, false if the ID was already taken
+     */
+    public boolean registerInstructor(Instructor instructor) {
+        if (instructors.putIfAbsent(instructor.getId(), instructor) != null) {
+            return false;
+        }
+        workloads.put(instructor.getId(), new Workload());
+        return true;
+    }
+
+    /**
+     * Retrieves an instructor by ID.
+     *
+     * @param instructorId the ID of the instructor
+     * @return the Instructor object, or null if not found
+     */
+    public Instructor findInstructor(String instructorId) {
+        return instructors.get(instructorId);
+    }
+
+    /**
+     * Returns all registered instructors.
+     *
+     * @return read-only view of the registered instructors
+     */
+    public Collection<Instructor> getInstructors() {
+        return Collections.unmodifiableCollection(instructors.values());
+    }
+
+    /**
+     * Assigns a course to an instructor.
+     *
+     * @param instructorId the ID of the instructor
+     * @param course       the course to teach
+     * @return true if assigned, false if the instructor does not exist or already teaches it
+     */
+    public boolean assignCourse(String instructorId, Course course) {
+        Instructor instructor = instructors.get(instructorId);
+        if (instructor == null) {
+            return false;
+        }
+        CourseStaff courseStaff = staff.computeIfAbsent(course.getCode(),
+                code -> new CourseStaff(enrollmentRegistry.getRoster(code)));
+        synchronized (courseStaff) {
+            if (!instructor.assignCourse(course)) {
+                return false;
+            }
+            courseStaff.instructors.add(instructor);
+            Workload workload = workloads.get(instructorId);
+            workload.credits.addAndGet(course.getCredits());
+            workload.enrolledStudents.addAndGet(courseStaff.enrolled.size());
+            return true;
+        }
+    }
+
+    /**
+     * Removes a course from an instructor's assignments.
+     *
+     * @param instructorId the ID of the instructor
+     * @param courseCode   the course code
+     * @return true if removed, false if the instructor does not exist or does not teach it
+     */
+    public boolean unassignCourse(String instructorId, String courseCode) {
+        Instructor instructor = instructors.get(instructorId);
+        CourseStaff courseStaff = staff.get(courseCode);
+        if (instructor == null || courseStaff == null) {
+            return false;
+        }
+        synchronized (courseStaff) {
+            Course course = instructor.unassignCourse(courseCode);
+            if (course == null) {
+                return false;
+            }
+            courseStaff.instructors.remove(instructor);
+            Workload workload = workloads.get(instructorId);
+            workload.credits.addAndGet(-course.getCredits());
+            workload.enrolledStudents.addAndGet(-courseStaff.enrolled.size());
+            return true;
+        }
+    }
+
+    /**
+     * Returns the courses an instructor teaches, in assignment order.
+     *
+     * @param instructorId the ID of the instructor
+     * @return the courses, empty if the instructor does not exist
+     */
+    public List<Course> getCourses(String instructorId) {
+        Instructor instructor = instructors.get(instructorId);
+        return instructor == null ? List.of() : instructor.getTeachingCourses();
+    }
+
+    /**
+     * Returns the instructors of a course, in assignment order.
+     *
+     * @param courseCode the course code
+     * @return the instructors, empty if nobody teaches the course
+     */
+    public List<Instructor> getInstructors(String courseCode) {
+        CourseStaff courseStaff = staff.get(courseCode);
+        return courseStaff == null ? List.of() : List.copyOf(courseStaff.instructors);
+    }
+
+    /**
+     * Returns the total credits of the courses an instructor teaches.
+     *
+     * @param instructorId the ID of the instructor
+     * @return the credits, 0 if the instructor does not exist
+     */
+    public int getTotalCredits(String instructorId) {
+        Workload workload = workloads.get(instructorId);
+        return workload == null ? 0 : workload.credits.get();
+    }
+
+    /**
+     * Returns the number of enrollments across the courses an instructor teaches; a student
+     * taking two of them counts twice.
+     *
+     * @param instructorId the ID of the instructor
+     * @return the enrollments, 0 if the instructor does not exist
+     */
+    public long getEnrolledStudentCount(String instructorId) {
+        Workload workload = workloads.get(instructorId);
+        return workload == null ? 0 : workload.enrolledStudents.get();
+    }
+
+    /**
+     * Instructors and enrolled students of one course. Guarded by its own monitor.
+     * <p>
+     * The roster is added to before the enrollment listener fires, so an enrollment racing
+     * with the first assignment may be both in the roster the staff is seeded from and
+     * reported to the listener afterwards. Keeping the counted student IDs makes the second
+     * report a no-op, so every enrollment is counted exactly once.
+     */
+    private static final class CourseStaff {
+
+        final List<Instructor> instructors = new CopyOnWriteArrayList<>();
+
+        // IDs of the students counted as enrolled
+        final Set<String> enrolled = new HashSet<>();
+
+        CourseStaff(Collection<Student> roster) {
+            for (Student student : roster) {
+                enrolled.add(student.getId());
+            }
+        }
+    }
+
+    private static final class Workload {
+
+        final AtomicInteger credits = new AtomicInteger();
+
+        final AtomicLong enrolledStudents = new AtomicLong();
+    }
+
+    /**
+     * Adds each enrollment to the course's count and to the workload of its instructors.
+     */
+    private final class EnrollmentCounter implements MutationListener {
+
+        @Override
+        public void studentEnrolled(Student student, Course course) {
+            CourseStaff courseStaff = staff.get(course.getCode());
+            if (courseStaff == null) {
+                return; // Counted from the roster if the course is ever assigned
+            }
+            synchronized (courseStaff) {
+                if (!courseStaff.enrolled.add(student.getId())) {
+                    return; // Already in the roster the staff was seeded from
+                }
+                for (Instructor instructor : courseStaff.instructors) {
+                    workloads.get(instructor.getId()).enrolledStudents.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Instructor;
+import com.generation.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstructorServiceTest {
+
+    private StudentService studentService;
+    private CourseService courseService;
+    private InstructorService instructorService;
+    private Instructor instructor;
+
+    /**
+     * Sets up services sharing one registry, two students and a registered instructor.
+     */
+    @BeforeEach
+    void setUp() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        courseService = new CourseService(registry);
+        studentService = new StudentService(registry);
+        instructorService = new InstructorService(registry);
+
+        studentService.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+        studentService.subscribeStudent(new Student("S002", "Jane Roe", "jane@example.com", null));
+        instructor = new Instructor("I001", "Ada Lovelace", "ada@example.com", null);
+        assertTrue(instructorService.registerInstructor(instructor));
+    }
+
+    /**
+     * Tests that assignments are visible from both the instructor and the course side.
+     */
+    @Test
+    void testAssignCourseIndexesBothWays() {
+        Course course = courseService.getCourse("INTRO-CS-1");
+        assertTrue(instructorService.assignCourse("I001", course));
+        assertFalse(instructorService.assignCourse("I001", course));
+        assertFalse(instructorService.assignCourse("I999", course));
+
+        assertEquals(List.of(course), instructor.getTeachingCourses());
+        assertEquals(List.of(course), instructorService.getCourses("I001"));
+        assertEquals(List.of(instructor), instructorService.getInstructors("INTRO-CS-1"));
+
+        assertTrue(instructorService.unassignCourse("I001", "INTRO-CS-1"));
+        assertTrue(instructorService.getCourses("I001").isEmpty());
+        assertTrue(instructorService.getInstructors("INTRO-CS-1").isEmpty());
+    }
+
+    /**
+     * Tests that workloads include enrollments made both before and after an assignment.
+     */
+    @Test
+    void testWorkloadFollowsEnrollmentsAndAssignments() {
+        studentService.enrollToCourse("S001", courseService.getCourse("INTRO-CS-1"));
+        instructorService.assignCourse("I001", courseService.getCourse("INTRO-CS-1"));
+        instructorService.assignCourse("I001", courseService.getCourse("INTRO-CS-2"));
+        assertEquals(18, instructorService.getTotalCredits("I001"));
+        assertEquals(1, instructorService.getEnrolledStudentCount("I001"));
+
+        studentService.enrollToCourse("S002", courseService.getCourse("INTRO-CS-1"));
+        studentService.enrollToCourse("S002", courseService.getCourse("INTRO-CS-2"));
+        studentService.enrollToCourse("S002", courseService.getCourse("INTRO-CS-3"));
+        assertEquals(3, instructorService.getEnrolledStudentCount("I001"));
+
+        instructorService.unassignCourse("I001", "INTRO-CS-1");
+        assertEquals(9, instructorService.getTotalCredits("I001"));
+        assertEquals(1, instructorService.getEnrolledStudentCount("I001"));
+        assertEquals(0, instructorService.getEnrolledStudentCount("I999"));
+    }
+
+    /**
+     * Tests that an assignment made after an enrollment reached the roster, but before the
+     * enrollment was reported to the service, counts the enrollment once.
+     */
+    @Test
+    void testAssignmentRacingWithEnrollmentCountsOnce() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        CourseService courses = new CourseService(registry);
+        StudentService students = new StudentService(registry);
+        Course course = courses.getCourse("INTRO-CS-1");
+        InstructorService[] racing = new InstructorService[1];
+        // Registered before the service's own listener, so it runs in between
+        registry.addListener(new MutationListener() {
+            @Override
+            public void studentEnrolled(Student student, Course enrolledCourse) {
+                racing[0].assignCourse("I001", enrolledCourse);
+            }
+        });
+        racing[0] = new InstructorService(registry);
+        racing[0].registerInstructor(new Instructor("I001", "Ada Lovelace", "ada@example.com", null));
+        students.subscribeStudent(new Student("S001", "John Doe", "john@example.com", null));
+
+        assertTrue(students.enrollToCourse("S001", course));
+        assertEquals(1, racing[0].getEnrolledStudentCount("I001"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Student;
+
+/**
+ * Receives every successful mutation made through StudentService and CourseService.
+ * Listeners are registered on the EnrollmentRegistry the services share.
+ * <p>
+ * Student mutations are reported while the student's lock is held, so the calls for one
+ * student arrive in the order they were applied. Listeners should return quickly, and leave
+ * slow work such as waiting for the disk to {@link #mutationsReleased()}.
+ */
+public interface MutationListener {
+
+    /**
+     * Called after a student is registered.
+     *
+     * @param student the new student
+     */
+    default void studentSubscribed(Student student) {
+    }
+
+    /**
+     * Called after a course is registered.
+     *
+     * @param course the new course
+     */
+    default void courseRegistered(Course course) {
+    }
+
+    /**
+     * Called after a student is enrolled in a course.
+     *
+     * @param student the enrolled student
+     * @param course  the course
+     */
+    default void studentEnrolled(Student student, Course course) {
+    }
+
+    /**
+     * Called after a grade is recorded for a student.
+     *
+     * @param student    the graded student
+     * @param courseCode the graded course code
+     * @param grade      the grade
+     */
+    default void courseGraded(Student student, String courseCode, double grade) {
+    }
+
+    /**
+     * Called after a student passes a course for the first time, either by being graded at
+     * least {@link Student#PASSING_GRADE} or by an approval registered without a grade. When
+     * caused by a grade, it follows the {@link #courseGraded} call for that grade.
+     *
+     * @param student the student
+     * @param course  the passed course
+     */
+    default void courseApproved(Student student, Course course) {
+    }
+
+    /**
+     * Called on the thread that made one or more of the mutations above once it holds no
+     * student lock any more, before the service call returns. Work the caller must wait for,
+     * such as making the reported mutations durable, belongs here, so that other students
+     * sharing the lock do not wait for it too.
+     */
+    default void mutationsReleased() {
+    }
+}
@@ -0,0 +1,274 @@
+package com.generation.service;
+
+import com.generation.model.Student;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order-statistic index of graded students by average grade, so ranking queries cost
+ * O(log n) plus the size of the answer instead of a sort of all students.
+ * <p>
+ * Students are kept in a treap in ranking order: highest average first, ties broken by
+ * ascending student ID. Every node knows the size of its subtree, which gives positions
+ * without a scan. Each student is indexed at its average as of the last
+ * {@link #refresh}; students that were never graded are not ranked.
+ * <p>
+ * Queries share a read lock and updates take the write lock, so dashboards can query while
+ * grades are being recorded.
+ */
+class RankingIndex {
+
+    private static final class Node {
+
+        final Student student;
+
+        final double average;
+
+        final int priority = ThreadLocalRandom.current().nextInt();
+
+        Node left;
+
+        Node right;
+
+        int size = 1;
+
+        Node(Student student, double average) {
+            this.student = student;
+            this.average = average;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexed node of each ranked student, by student ID
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    private Node root;
+
+    /**
+     * Re-indexes a student at its current average, or drops it if it is no longer the
+     * registered student with its ID. Both are read under the write lock, so callers need not
+     * hold the student's lock: whichever refresh of a student runs last sees every grade
+     * recorded before any of the refreshes, and a refresh racing with the student being
+     * replaced cannot put the replaced student back.
+     *
+     * @param student  the student
+     * @param students the registered students, by ID
+     */
+    void refresh(Student student, Map<String, Student> students) {
+        lock.writeLock().lock();
+        try {
+            if (students.get(student.getId()) != student) {
+                return; // Replaced; its ranking was removed along with it
+            }
+            Node previous = nodes.remove(student.getId());
+            if (previous != null) {
+                root = remove(root, previous);
+            }
+            Node node = new Node(student, student.getAverage());
+            nodes.put(student.getId(), node);
+            Node[] parts = split(root, node);
+            root = merge(merge(parts[0], node), parts[1]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a student from the index.
+     *
+     * @param studentId the student's ID
+     */
+    void remove(String studentId) {
+        lock.writeLock().lock();
+        try {
+            Node previous = nodes.remove(studentId);
+            if (previous != null) {
+                root = remove(root, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of ranked students
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the students from one position in ranking order to another.
+     *
+     * @param from    first position, 0 being the highest average
+     * @param to      position after the last one
+     * @param reverse true to return them lowest average first
+     * @return the students
+     */
+    List<Student> slice(int from, int to, boolean reverse) {
+        lock.readLock().lock();
+        try {
+            to = Math.min(to, size(root));
+            List<Student> result = new ArrayList<>(Math.max(0, to - from));
+            collect(root, 0, from, to, result);
+            return reverse ? result.reversed() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param studentId the student's ID
+     * @return the position of the student in ranking order, 0 being the highest average,
+     * or -1 if the student is not ranked
+     */
+    int positionOf(String studentId) {
+        lock.readLock().lock();
+        try {
+            Node target = nodes.get(studentId);
+            if (target == null) {
+                return -1;
+            }
+            int position = 0;
+            Node node = root;
+            while (node != target) {
+                if (precedes(target.average, target.student.getId(), node)) {
+                    node = node.left;
+                } else {
+                    position += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return position + size(node.left);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the students whose average lies in a range, highest average first.
+     *
+     * @param min lowest average, inclusive
+     * @param max highest average, inclusive
+     * @return the students
+     */
+    List<Student> range(double min, double max) {
+        lock.readLock().lock();
+        try {
+            // Ranking order is descending, so the range starts at the first node not above max
+            int from = countAbove(max);
+            int to = countAbove(Math.nextDown(min));
+            List<Student> result = new ArrayList<>(Math.max(0, to - from));
+            collect(root, 0, from, to, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of ranked students with an average strictly above the bound
+     */
+    private int countAbove(double bound) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.average > bound) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the students at positions [from, to) of a subtree whose first position is offset.
+     */
+    private static void collect(Node node, int offset, int from, int to, List<Student> result) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int position = offset + size(node.left);
+        collect(node.left, offset, from, to, result);
+        if (position >= from && position < to) {
+            result.add(node.student);
+        }
+        collect(node.right, position + 1, from, to, result);
+    }
+
+    /**
+     * @return whether a student with the given average and ID ranks before the node
+     */
+    private static boolean precedes(double average, String id, Node node) {
+        int byAverage = Double.compare(node.average, average);
+        return byAverage != 0 ? byAverage < 0 : id.compareTo(node.student.getId()) < 0;
+    }
+
+    /**
+     * Splits a subtree into the nodes ranking before the key node and the rest.
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (precedes(key.average, key.student.getId(), node)) {
+            Node[] parts = split(node.left, key);
+            node.left = parts[1];
+            parts[1] = resize(node);
+            return parts;
+        }
+        Node[] parts = split(node.right, key);
+        node.right = parts[0];
+        parts[0] = resize(node);
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return resize(left);
+        }
+        right.left = merge(left, right.left);
+        return resize(right);
+    }
+
+    private static Node remove(Node node, Node target) {
+        if (node == target) {
+            return merge(node.left, node.right);
+        }
+        if (precedes(target.average, target.student.getId(), node)) {
+            node.left = remove(node.left, target);
+        } else {
+            node.right = remove(node.right, target);
+        }
+        return resize(node);
+    }
+
+    private static Node resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,76 @@
+package com.generation.service;
+
+import com.generation.model.Student;
+import com.generation.utils.AppendOnlyList;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A set of students in the order they were added, such as the students enrolled in one
+ * course. Membership is keyed by student ID for lock-free constant-time checks, and an
+ * {@link AppendOnlyList} keeps the order, so readers share an immutable snapshot instead of
+ * copying the roster on every call. Additions append under a short lock; the rare removal
+ * rebuilds the order.
+ */
+class Roster {
+
+    // Members mapped by student ID
+    private final Map<String, Student> members = new ConcurrentHashMap<>();
+
+    // Members in the order they were added; appended and replaced under this roster's lock
+    private volatile AppendOnlyList<Student> order = new AppendOnlyList<>(8);
+
+    /**
+     * Adds a student to the roster.
+     *
+     * @param student the student to add
+     * @return true if added, false if a student with the same ID is already a member
+     */
+    boolean add(Student student) {
+        if (members.putIfAbsent(student.getId(), student) != null) {
+            return false;
+        }
+        synchronized (this) {
+            order.add(student);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a student from the roster, keeping the order of the others.
+     *
+     * @param studentId the student's ID
+     */
+    void remove(String studentId) {
+        Student removed = members.remove(studentId);
+        if (removed == null) {
+            return;
+        }
+        synchronized (this) {
+            AppendOnlyList<Student> kept = new AppendOnlyList<>(8);
+            for (Student student : order.snapshot()) {
+                if (student != removed) {
+                    kept.add(student);
+                }
+            }
+            order = kept; // Snapshots already handed out keep the old order
+        }
+    }
+
+    boolean contains(String studentId) {
+        return members.containsKey(studentId);
+    }
+
+    int size() {
+        return members.size();
+    }
+
+    /**
+     * @return read-only snapshot of the members in the order they were added
+     */
+    List<Student> students() {
+        return order.snapshot();
+    }
+}
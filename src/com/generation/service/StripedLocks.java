@@ -0,0 +1,48 @@
+package com.generation.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks selected by key hash, so that operations on the same key are
+ * serialized while operations on different keys mostly run in parallel.
+ */
+class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    // Bit mask selecting a stripe from a spread hash code
+    private final int mask;
+
+    /**
+     * Creates a lock set sized for the available processors.
+     */
+    StripedLocks() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a lock set with at least the given number of stripes.
+     *
+     * @param minStripes the minimum number of stripes, rounded up to a power of two
+     */
+    StripedLocks(int minStripes) {
+        int stripes = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = stripes - 1;
+    }
+
+    /**
+     * Returns the lock guarding the given key.
+     *
+     * @param key the key, e.g. a student ID
+     * @return the stripe for that key
+     */
+    ReentrantLock lockFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16); // Spread high bits so similar IDs land on different stripes
+        return locks[h & mask];
+    }
+}
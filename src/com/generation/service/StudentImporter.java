@@ -0,0 +1,174 @@
+package com.generation.service;
+
+import com.generation.model.Student;
+import com.generation.service.ImportReport.Reason;
+import com.generation.utils.InputValidator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Registers students in bulk from a CSV file of {@code id,name,email,dd/MM/yyyy} rows.
+ * <p>
+ * The file is read line by line in chunks, so memory use does not grow with its size. The
+ * rows of each chunk are validated and parsed in parallel across all cores with
+ * {@link InputValidator}, then subscribed in file order, so duplicate IDs are handled exactly like the interactive
+ * menu: the first registration wins and later ones are rejected. Names may contain commas;
+ * the ID is the first field and the email and birth date are the last two. An optional
+ * header line is skipped.
+ */
+public class StudentImporter {
+
+    // Lines read and parsed together; large enough to keep every core busy
+    private static final int CHUNK_LINES = 4096;
+
+    /**
+     * Outcome of parsing one line.
+     */
+    private sealed interface Row {
+    }
+
+    private record Valid(Student student) implements Row {
+    }
+
+    private record Invalid(Reason reason) implements Row {
+    }
+
+    private record Blank() implements Row {
+    }
+
+    private static final Row BLANK = new Blank();
+
+    private final StudentService studentService;
+
+    private final int maxErrors;
+
+    /**
+     * Creates an importer with the default error limit.
+     *
+     * @param studentService the service students are subscribed to
+     */
+    public StudentImporter(StudentService studentService) {
+        this(studentService, GradeImporter.DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param studentService the service students are subscribed to
+     * @param maxErrors      number of rejected rows kept in detail in the report
+     */
+    public StudentImporter(StudentService studentService, int maxErrors) {
+        this.studentService = studentService;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Registers all students in the given file.
+     *
+     * @param file the CSV file to read
+     * @return the report of registered and rejected rows
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importStudents(Path file) throws IOException {
+        ImportReport report = new ImportReport(maxErrors);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(CHUNK_LINES);
+            int firstLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == CHUNK_LINES) {
+                    importChunk(lines, firstLine, report);
+                    firstLine += lines.size();
+                    lines.clear();
+                }
+            }
+            importChunk(lines, firstLine, report);
+        }
+        return report;
+    }
+
+    /**
+     * Parses a chunk of lines in parallel and subscribes its students in file order.
+     *
+     * @param firstLine line number of the first line in the chunk, starting at 1
+     */
+    private void importChunk(List<String> lines, int firstLine, ImportReport report) {
+        // Validation and date parsing are independent per row, so they run in parallel
+        Row[] parsed = new Row[lines.size()];
+        IntStream.range(0, lines.size()).parallel().forEach(i -> parsed[i] = parse(lines.get(i)));
+
+        for (int i = 0; i < parsed.length; i++) {
+            int lineNumber = firstLine + i;
+            String line = lines.get(i);
+            switch (parsed[i]) {
+                case Blank _ -> {
+                    // Nothing to import
+                }
+                case Invalid _ when lineNumber == 1 && isHeader(line) -> {
+                    // Column header
+                }
+                case Invalid invalid -> {
+                    report.rowRead();
+                    report.reject(lineNumber, invalid.reason(), line);
+                }
+                case Valid valid -> {
+                    report.rowRead();
+                    if (studentService.subscribeStudentIfAbsent(valid.student())) {
+                        report.applied(1);
+                    } else {
+                        report.reject(lineNumber, Reason.DUPLICATE_STUDENT, line);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses one row.
+     *
+     * @return the parsed student, the reason the row is invalid, or {@link #BLANK}
+     */
+    private static Row parse(String line) {
+        if (line.isBlank()) {
+            return BLANK;
+        }
+        int firstComma = line.indexOf(',');
+        int lastComma = line.lastIndexOf(',');
+        int emailComma = lastComma < 0 ? -1 : line.lastIndexOf(',', lastComma - 1);
+        if (firstComma < 0 || emailComma <= firstComma) {
+            return new Invalid(Reason.MALFORMED_ROW);
+        }
+
+        String id = line.substring(0, firstComma).trim();
+        String name = line.substring(firstComma + 1, emailComma).trim();
+        String email = line.substring(emailComma + 1, lastComma).trim();
+        if (id.isEmpty() || name.isEmpty()) {
+            return new Invalid(Reason.MALFORMED_ROW);
+        }
+        if (!InputValidator.isValidEmail(email)) {
+            return new Invalid(Reason.INVALID_EMAIL);
+        }
+        Date birthDate = InputValidator.parseDate(line.substring(lastComma + 1).trim());
+        if (birthDate == null) {
+            return new Invalid(Reason.INVALID_DATE);
+        }
+        return new Valid(new Student(id, name, email, birthDate));
+    }
+
+    /**
+     * An invalid first line whose birth date field does not start with a digit is a column header.
+     */
+    private static boolean isHeader(String line) {
+        String lastField = line.substring(line.lastIndexOf(',') + 1).trim();
+        return lastField.isEmpty() || !Character.isDigit(lastField.charAt(0));
+    }
+}
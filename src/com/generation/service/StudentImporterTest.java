@@ -0,0 +1,80 @@
+package com.generation.service;
+
+import com.generation.model.Student;
+import com.generation.service.ImportReport.Reason;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentImporterTest {
+
+    /**
+     * Tests that valid rows are registered in file order, duplicates keep the first
+     * registration, and invalid rows are reported with their reason.
+     */
+    @Test
+    void testImportRegistersValidStudents() throws Exception {
+        StudentService studentService = new StudentService();
+        studentService.subscribeStudent(new Student("S000", "Existing", "existing@example.com", null));
+
+        Path file = Files.createTempFile("students", ".csv");
+        Files.writeString(file, """
+                id,name,email,birthDate
+                S001,John Doe,john@example.com,01/02/2000
+                S002,Doe, Jane,jane@example.com,29/02/2004
+                S001,John Again,again@example.com,01/02/2000
+                S000,Existing Again,existing@example.com,01/01/1999
+                S003,Bad Email,not-an-email,01/01/1999
+                S004,Bad Date,bad@example.com,30/02/2001
+                S005
+                """);
+
+        ImportReport report = new StudentImporter(studentService).importStudents(file);
+
+        assertEquals(7, report.getRowsRead());
+        assertEquals(2, report.getApplied());
+
+        List<ImportReport.ImportError> errors = report.getErrors();
+        assertEquals(Reason.DUPLICATE_STUDENT, errors.get(0).reason());
+        assertEquals(4, errors.get(0).line());
+        assertEquals(Reason.DUPLICATE_STUDENT, errors.get(1).reason());
+        assertEquals(Reason.INVALID_EMAIL, errors.get(2).reason());
+        assertEquals(Reason.INVALID_DATE, errors.get(3).reason());
+        assertEquals(Reason.MALFORMED_ROW, errors.get(4).reason());
+
+        assertEquals("John Doe", studentService.findStudent("S001").getName());
+        assertEquals("Doe, Jane", studentService.findStudent("S002").getName());
+        assertEquals("Existing", studentService.findStudent("S000").getName());
+        assertFalse(studentService.isSubscribed("S003"));
+        Files.delete(file);
+    }
+
+    /**
+     * Tests that a file longer than one chunk of lines is imported completely, with line
+     * numbers and duplicate checks carried across chunks.
+     */
+    @Test
+    void testImportSpansChunks() throws Exception {
+        StudentService studentService = new StudentService();
+        StringBuilder rows = new StringBuilder();
+        for (int i = 1; i <= 5000; i++) {
+            rows.append("S").append(i).append(",Student ").append(i).append(",s").append(i).append("@example.com,01/01/2000\n");
+        }
+        rows.append("S1,Student Again,again@example.com,01/01/2000\n");
+        Path file = Files.createTempFile("students", ".csv");
+        Files.writeString(file, rows);
+
+        ImportReport report = new StudentImporter(studentService).importStudents(file);
+
+        assertEquals(5001, report.getRowsRead());
+        assertEquals(5000, report.getApplied());
+        assertEquals(Reason.DUPLICATE_STUDENT, report.getErrors().get(0).reason());
+        assertEquals(5001, report.getErrors().get(0).line());
+        assertTrue(studentService.isSubscribed("S5000"));
+        Files.delete(file);
+    }
+}
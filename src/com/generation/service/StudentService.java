@@ -1,26 +1,102 @@
 package com.generation.service;
 
+import com.generation.metrics.Metrics;
 import com.generation.model.Course;
+import com.generation.model.Module;
 import com.generation.model.Student;
+import com.generation.utils.ReportWriter;
 
-import java.util.HashMap;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service class to manage student registration, enrollment, and grading.
+ * <p>
+ * Safe for concurrent use: lookups are lock-free, and enrollment and grading of a student
+ * are serialized by a lock striped on the student ID, so different students are updated
+ * in parallel.
  */
 public class StudentService {
 
     // Stores all registered students, mapped by student ID
-    private final Map<String, Student> students = new HashMap<>();
+    private final Map<String, Student> students = new ConcurrentHashMap<>();
+
+    // Shared record of enrollments, also used by CourseService
+    private final EnrollmentRegistry enrollmentRegistry;
+
+    // Graded students ordered by average, kept in step with every grade change
+    private final RankingIndex ranking = new RankingIndex();
+
+    /**
+     * Creates a service with its own enrollment registry.
+     */
+    public StudentService() {
+        this(new EnrollmentRegistry());
+    }
 
     /**
-     * Registers a student in the system.
+     * Creates a service that records enrollments in the given registry.
+     *
+     * @param enrollmentRegistry the registry shared with CourseService
+     */
+    public StudentService(EnrollmentRegistry enrollmentRegistry) {
+        this.enrollmentRegistry = enrollmentRegistry;
+    }
+
+    /**
+     * Registers a student in the system. A student already registered with the same ID is
+     * replaced, and its enrollments, approvals and grades are dropped with it.
      *
      * @param student the student to subscribe
      */
     public void subscribeStudent(Student student) {
-        students.put(student.getId(), student); // Add student to the map using their ID
+        long start = Metrics.start();
+        ReentrantLock lock = enrollmentRegistry.lockFor(student.getId());
+        lock.lock();
+        try {
+            Student replaced = students.put(student.getId(), student); // Add student to the map using their ID
+            if (replaced != null && replaced != student) {
+                // The replaced student's enrollments and grades no longer count
+                enrollmentRegistry.removed(replaced);
+                ranking.remove(student.getId());
+            }
+            studentSubscribed(student);
+        } finally {
+            lock.unlock();
+        }
+        enrollmentRegistry.mutationsReleased();
+        Metrics.SUBSCRIBE_STUDENT.record(start);
+    }
+
+    /**
+     * Registers a student unless a student with the same ID is already registered.
+     *
+     * @param student the student to subscribe
+     * @return true if the student was registered, false if the ID was already taken
+     */
+    public boolean subscribeStudentIfAbsent(Student student) {
+        long start = Metrics.start();
+        boolean subscribed = false;
+        ReentrantLock lock = enrollmentRegistry.lockFor(student.getId());
+        lock.lock();
+        try {
+            if (students.putIfAbsent(student.getId(), student) == null) { // Keep the existing student on duplicates
+                studentSubscribed(student);
+                subscribed = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (subscribed) {
+            enrollmentRegistry.mutationsReleased();
+        }
+        Metrics.SUBSCRIBE_STUDENT.record(start);
+        return subscribed;
     }
 
     /**
@@ -30,7 +106,19 @@ public class StudentService {
      * @return the Student object, or null if not found
      */
     public Student findStudent(String studentId) {
-        return students.get(studentId); // Return the student if exists
+        long start = Metrics.start();
+        Student student = students.get(studentId); // Return the student if exists
+        Metrics.FIND_STUDENT.record(start);
+        return student;
+    }
+
+    /**
+     * Returns all registered students.
+     *
+     * @return read-only view of the registered students
+     */
+    public Collection<Student> getStudents() {
+        return Collections.unmodifiableCollection(students.values());
     }
 
     /**
@@ -48,24 +136,69 @@ public class StudentService {
      * passed courses and GPA.
      */
     public void showSummary() {
-        System.out.println("Students Summary:");
-
-        // Loop through all registered students
-        for (Student student : students.values()) {
-            System.out.println(student); // Print student details
-
-            // List all passed courses
-            System.out.println("Passed Courses:");
-            for (Course c : student.findPassedCourses()) {
-                System.out.println(" - " + c.getCode() + ": " + c.getName() +
-                        ", Credits: " + c.getCredits() +
-                        ", Module: " + c.getModule().getName());
-            }
+        long start = Metrics.start();
+        ReportWriter out = new ReportWriter(System.out);
+        SummaryReport.writeStudents(out, students.values(), 0, Integer.MAX_VALUE);
+        out.flush();
+        Metrics.STUDENT_SUMMARY.record(start);
+    }
 
-            // Print student's GPA
-            System.out.printf("GPA: %.2f%n", student.getAverage());
-            System.out.println("-------------------------");
-        }
+    /**
+     * Writes a page of the students summary.
+     *
+     * @param out    the destination; flushed but not closed
+     * @param offset number of students to skip
+     * @param limit  maximum number of students to write
+     * @return number of students written
+     */
+    public int writeSummary(Writer out, int offset, int limit) {
+        ReportWriter report = new ReportWriter(out);
+        int written = SummaryReport.writeStudents(report, students.values(), offset, limit);
+        report.flush();
+        return written;
+    }
+
+    /**
+     * Returns the graded students with the highest averages.
+     *
+     * @param n maximum number of students to return
+     * @return the students, highest average first
+     */
+    public List<Student> getTopStudents(int n) {
+        return ranking.slice(0, n, false);
+    }
+
+    /**
+     * Returns the graded students with the lowest averages, e.g. for at-risk reports.
+     *
+     * @param n maximum number of students to return
+     * @return the students, lowest average first
+     */
+    public List<Student> getBottomStudents(int n) {
+        int ranked = ranking.size();
+        return ranking.slice(Math.max(0, ranked - n), ranked, true);
+    }
+
+    /**
+     * Returns the rank of a student by average grade. Equal averages are ranked by student ID.
+     *
+     * @param studentId the ID of the student
+     * @return the rank, 1 being the highest average, or -1 if the student has no grades
+     */
+    public int getRank(String studentId) {
+        int position = ranking.positionOf(studentId);
+        return position < 0 ? -1 : position + 1;
+    }
+
+    /**
+     * Returns the graded students whose average lies in a range.
+     *
+     * @param min lowest average, inclusive
+     * @param max highest average, inclusive
+     * @return the students, highest average first
+     */
+    public List<Student> findStudentsByAverage(double min, double max) {
+        return ranking.range(min, max);
     }
 
     /**
@@ -73,12 +206,31 @@ public class StudentService {
      *
      * @param studentId the student's ID
      * @param course    the course to enroll the student in
-     * @return true if enrollment was successful, false otherwise
+     * @return true if enrollment was successful, false if the student does not exist, is
+     *         already enrolled or has not completed the prerequisite modules
      */
     public boolean enrollToCourse(String studentId, Course course) {
-        Student student = students.get(studentId); // Retrieve the student
-        if (student == null) return false;         // If student not found, return false
-        return student.enrollToCourse(course);     // Delegate enrollment to student object
+        long start = Metrics.start();
+        try {
+            Student student = students.get(studentId); // Retrieve the student
+            if (student == null) return false;         // If student not found, return false
+            return enrollmentRegistry.enroll(student, course); // Record enrollment on both sides
+        } finally {
+            Metrics.ENROLL_TO_COURSE.record(start);
+        }
+    }
+
+    /**
+     * Returns the prerequisite modules a student has yet to complete before enrolling in a
+     * course.
+     *
+     * @param studentId the student's ID
+     * @param course    the course
+     * @return the missing modules, empty if the student may enroll or does not exist
+     */
+    public List<Module> getMissingPrerequisites(String studentId, Course course) {
+        Student student = students.get(studentId);
+        return student == null ? List.of() : enrollmentRegistry.getMissingPrerequisites(student, course);
     }
 
     /**
@@ -89,12 +241,128 @@ public class StudentService {
      * @param grade      the grade to assign
      */
     public void gradeStudentCourse(String studentId, String courseCode, double grade) {
+        long start = Metrics.start();
         Student student = students.get(studentId); // Retrieve the student
         if (student != null) {
-            student.gradeCourse(courseCode, grade); // Assign grade via student object
+            ReentrantLock lock = enrollmentRegistry.lockFor(studentId); // Serialize changes to this student
+            boolean graded;
+            lock.lock();
+            try {
+                graded = applyGrade(student, courseCode, grade); // Assign grade via student object
+            } finally {
+                lock.unlock();
+            }
+            if (graded) {
+                ranking.refresh(student, students); // Outside the student's lock; see applyGrade
+                enrollmentRegistry.mutationsReleased();
+            }
         } else {
             // Handle case where student ID is invalid
             System.out.println("Student with ID " + studentId + " not found.");
         }
+        Metrics.GRADE_STUDENT_COURSE.record(start);
+    }
+
+    /**
+     * Registers a course as approved for a student without a grade, e.g. when restoring
+     * saved state.
+     *
+     * @param studentId the student's ID
+     * @param course    the approved course
+     * @return true if the student exists and had not passed the course yet
+     */
+    public boolean registerApprovedCourse(String studentId, Course course) {
+        Student student = students.get(studentId);
+        if (student == null) {
+            return false;
+        }
+        ReentrantLock lock = enrollmentRegistry.lockFor(studentId);
+        lock.lock();
+        try {
+            if (student.isCourseApproved(course.getCode())) {
+                return false;
+            }
+            student.registerApprovedCourse(course);
+            enrollmentRegistry.approved(student, course);
+            for (MutationListener listener : enrollmentRegistry.listeners()) {
+                listener.courseApproved(student, course);
+            }
+        } finally {
+            lock.unlock();
+        }
+        enrollmentRegistry.mutationsReleased();
+        return true;
+    }
+
+    /**
+     * Records a batch of already validated grades. Consecutive entries for the same student
+     * are applied under a single acquisition of that student's lock, and the listeners finish
+     * the work of the whole batch at once, e.g. one journal sync.
+     *
+     * @param batchStudents the graded students
+     * @param courseCodes   the graded course codes
+     * @param batchGrades   the grades
+     * @param count         number of entries to apply from the arrays
+     */
+    void gradeBatch(Student[] batchStudents, String[] courseCodes, double[] batchGrades, int count) {
+        int i = 0;
+        while (i < count) {
+            Student student = batchStudents[i];
+            ReentrantLock lock = enrollmentRegistry.lockFor(student.getId());
+            boolean graded = false;
+            lock.lock();
+            try {
+                do {
+                    graded |= applyGrade(student, courseCodes[i], batchGrades[i]);
+                    i++;
+                } while (i < count && batchStudents[i] == student);
+            } finally {
+                lock.unlock();
+            }
+            if (graded) {
+                ranking.refresh(student, students);
+            }
+        }
+        enrollmentRegistry.mutationsReleased(); // Once for the whole batch
+    }
+
+    /**
+     * Grades a course, updates the course statistics and notifies the mutation listeners.
+     * Must be called with the student's lock held. The caller re-ranks the student after
+     * releasing the lock, so the ranking's global lock is never taken under a student's lock
+     * and grading of different students stays parallel.
+     *
+     * @return true if the grade changed, i.e. the student needs to be re-ranked
+     */
+    private boolean applyGrade(Student student, String courseCode, double grade) {
+        boolean wasApproved = student.isCourseApproved(courseCode);
+        double previous = student.getGrade(courseCode);
+        if (student.gradeCourse(courseCode, grade)) {
+            enrollmentRegistry.graded(courseCode, previous, grade);
+            Course approved = null;
+            if (!wasApproved && student.isCourseApproved(courseCode)) {
+                approved = student.getEnrolledCourse(courseCode);
+                enrollmentRegistry.approved(student, approved);
+            }
+            for (MutationListener listener : enrollmentRegistry.listeners()) {
+                listener.courseGraded(student, courseCode, grade);
+                if (approved != null) {
+                    listener.courseApproved(student, approved);
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Notifies the mutation listeners of a new student. Must be called with the student's
+     * lock held, taken before the student became visible, so that no enrollment or grade of
+     * the student can be reported before the subscription.
+     */
+    private void studentSubscribed(Student student) {
+        for (MutationListener listener : enrollmentRegistry.listeners()) {
+            listener.studentSubscribed(student);
+        }
     }
 }
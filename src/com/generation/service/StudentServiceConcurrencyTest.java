@@ -0,0 +1,136 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int STUDENTS = 50;
+    private static final int ROUNDS = 20_000;
+
+    private StudentService studentService;
+    private CourseService courseService;
+    private List<Course> courses;
+
+    /**
+     * Sets up services sharing one registry and subscribes the test students.
+     */
+    @BeforeEach
+    void setUp() {
+        EnrollmentRegistry registry = new EnrollmentRegistry();
+        courseService = new CourseService(registry);
+        studentService = new StudentService(registry);
+
+        courses = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            courses.add(courseService.getCourse("INTRO-CS-" + i));
+        }
+        for (int s = 0; s < STUDENTS; s++) {
+            studentService.subscribeStudent(new Student("S" + s, "Student " + s, "s" + s + "@example.com", null));
+        }
+    }
+
+    /**
+     * Runs the same task on all worker threads at once and waits for them to finish.
+     */
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Tests that concurrent duplicate enrollments produce exactly one enrollment per pair,
+     * consistent on both the roster and the student side.
+     */
+    @Test
+    void testConcurrentEnrollmentIsConsistent() throws Exception {
+        runConcurrently(() -> {
+            for (int s = 0; s < STUDENTS; s++) {
+                for (Course course : courses) {
+                    studentService.enrollToCourse("S" + s, course);
+                }
+            }
+        });
+
+        for (Course course : courses) {
+            assertEquals(STUDENTS, courseService.getEnrolledStudents(course.getCode()).size());
+        }
+        for (int s = 0; s < STUDENTS; s++) {
+            assertEquals(courses.size(), studentService.findStudent("S" + s).getEnrolledCourses().size());
+        }
+    }
+
+    /**
+     * Tests that averages and approved courses match the final grades after many threads
+     * overwrite grades of the same students at once.
+     */
+    @Test
+    void testConcurrentGradingKeepsAveragesAndApprovalsConsistent() throws Exception {
+        for (int s = 0; s < STUDENTS; s++) {
+            for (Course course : courses) {
+                studentService.enrollToCourse("S" + s, course);
+            }
+        }
+
+        // Contended phase: failing grades only, in half-point steps so sums stay exact
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ROUNDS; i++) {
+                String studentId = "S" + random.nextInt(STUDENTS);
+                Course course = courses.get(random.nextInt(courses.size()));
+                studentService.gradeStudentCourse(studentId, course.getCode(), random.nextInt(12) * 0.5);
+            }
+        });
+
+        // Final grade for course i is i + 2.5, so courses 4..7 end up approved
+        runConcurrently(() -> {
+            for (int s = 0; s < STUDENTS; s++) {
+                for (int i = 0; i < courses.size(); i++) {
+                    studentService.gradeStudentCourse("S" + s, courses.get(i).getCode(), i + 1 + 2.5);
+                }
+            }
+        });
+
+        double expectedAverage = 0;
+        for (int i = 0; i < courses.size(); i++) {
+            expectedAverage += i + 1 + 2.5;
+        }
+        expectedAverage /= courses.size();
+
+        for (int s = 0; s < STUDENTS; s++) {
+            Student student = studentService.findStudent("S" + s);
+            assertEquals(expectedAverage, student.getAverage(), 1e-9, "average of " + student.getId());
+            assertEquals(expectedAverage, student.getWeightedAverage(), 1e-9, "weighted average of " + student.getId());
+            assertEquals(4, student.getApprovedCourses().size(), "approved courses of " + student.getId());
+            for (int i = 0; i < courses.size(); i++) {
+                assertEquals(i + 1 + 2.5 >= 6.0, student.isCourseApproved(courses.get(i).getCode()));
+            }
+        }
+    }
+}
@@ -5,6 +5,12 @@ import com.generation.model.Student;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class StudentServiceTest {
@@ -93,6 +99,28 @@ class StudentServiceTest {
         studentService.gradeStudentCourse("S999", course.getCode(), 7.0);
     }
 
+    /**
+     * Tests that the plain and credit-weighted averages follow added and overwritten grades.
+     */
+    @Test
+    void testAveragesFollowGradeChanges() {
+        Course shortCourse = new Course("SHORT-1", "Short Course", 3, course.getModule());
+        studentService.enrollToCourse("S001", course);
+        studentService.enrollToCourse("S001", shortCourse);
+
+        studentService.gradeStudentCourse("S001", course.getCode(), 8.0);
+        studentService.gradeStudentCourse("S001", shortCourse.getCode(), 4.0);
+
+        Student found = studentService.findStudent("S001");
+        assertEquals(6.0, found.getAverage(), 0.001);
+        assertEquals((8.0 * 9 + 4.0 * 3) / 12, found.getWeightedAverage(), 0.001);
+
+        // Overwriting a grade replaces its contribution instead of adding a new one
+        studentService.gradeStudentCourse("S001", shortCourse.getCode(), 10.0);
+        assertEquals(9.0, found.getAverage(), 0.001);
+        assertEquals((8.0 * 9 + 10.0 * 3) / 12, found.getWeightedAverage(), 0.001);
+    }
+
     /**
      * Tests that showSummary runs without exceptions.
      * This is primarily for manual verification.
@@ -101,6 +129,65 @@ class StudentServiceTest {
     void testShowSummaryRuns() {
         studentService.showSummary();
     }
-}
 
+    /**
+     * Tests that the summary renders each student like toString and honours offset and limit.
+     */
+    @Test
+    void testWriteSummaryPages() {
+        studentService.subscribeStudent(new Student("S002", "Jane Roe", "jane@example.com", null));
+        studentService.subscribeStudent(new Student("S003", "Max Mustermann", "max@example.com", null));
+        studentService.enrollToCourse("S001", course);
+        studentService.gradeStudentCourse("S001", course.getCode(), 7.125);
+
+        StringWriter all = new StringWriter();
+        assertEquals(3, studentService.writeSummary(all, 0, Integer.MAX_VALUE));
+        assertTrue(all.toString().contains(studentService.findStudent("S001").toString()));
+        assertTrue(all.toString().contains(" - INTRO-CS-1: Introduction to Computer Science, Credits: 9, Module: "));
+        assertTrue(all.toString().contains("GPA: 7.13"));
+
+        StringWriter page = new StringWriter();
+        assertEquals(1, studentService.writeSummary(page, 1, 1));
+        assertEquals(1, page.toString().split("GPA: ", -1).length - 1);
+    }
 
+    /**
+     * Tests the ranking queries against a full sort of the students, while grades keep
+     * changing. Ungraded students are not ranked.
+     */
+    @Test
+    void testRankingFollowsGradeChanges() {
+        assertEquals(-1, studentService.getRank("S001"));
+        Course second = courseService.getCourse("INTRO-CS-2");
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            String id = String.format("R%03d", i);
+            studentService.subscribeStudent(new Student(id, "Student " + i, id + "@example.com", null));
+            studentService.enrollToCourse(id, course);
+            studentService.enrollToCourse(id, second);
+        }
+        for (int round = 0; round < 1000; round++) {
+            String id = String.format("R%03d", random.nextInt(200));
+            String code = random.nextBoolean() ? course.getCode() : second.getCode();
+            studentService.gradeStudentCourse(id, code, random.nextInt(21) / 2.0);
+        }
+
+        List<Student> expected = new ArrayList<>();
+        for (Student student : studentService.getStudents()) {
+            if (!Double.isNaN(student.getGrade(course.getCode())) || !Double.isNaN(student.getGrade(second.getCode()))) {
+                expected.add(student);
+            }
+        }
+        expected.sort(Comparator.comparingDouble(Student::getAverage).reversed().thenComparing(Student::getId));
+
+        assertEquals(expected.subList(0, 10), studentService.getTopStudents(10));
+        int graded = expected.size();
+        assertEquals(expected.subList(graded - 10, graded).reversed(), studentService.getBottomStudents(10));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, studentService.getRank(expected.get(i).getId()));
+        }
+        List<Student> middle = expected.stream().filter(s -> s.getAverage() >= 4.0 && s.getAverage() <= 6.5).toList();
+        assertEquals(middle, studentService.findStudentsByAverage(4.0, 6.5));
+        assertEquals(-1, studentService.getRank("S001"));
+    }
+}
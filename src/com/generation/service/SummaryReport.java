@@ -0,0 +1,136 @@
+package com.generation.service;
+
+import com.generation.model.Course;
+import com.generation.model.Student;
+import com.generation.utils.ReportWriter;
+
+import java.util.Collection;
+
+/**
+ * Renders the student and course summaries into a ReportWriter. The text matches what the
+ * services used to print line by line, but every field is appended straight into the
+ * writer's buffer. Both summaries can be paged with an offset and a row limit.
+ */
+class SummaryReport {
+
+    private SummaryReport() {
+    }
+
+    /**
+     * Writes the students summary: each student with passed courses and GPA.
+     *
+     * @param out      the destination
+     * @param students the students to list
+     * @param offset   number of students to skip
+     * @param limit    maximum number of students to write
+     * @return number of students written
+     */
+    static int writeStudents(ReportWriter out, Collection<Student> students, int offset, int limit) {
+        out.append("Students Summary:").newLine();
+        int skipped = 0;
+        int written = 0;
+        for (Student student : students) {
+            if (written == limit) {
+                break;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            writeStudent(out, student);
+            out.newLine();
+
+            out.append("Passed Courses:").newLine();
+            for (Course c : student.findPassedCourses()) {
+                out.append(" - ").append(c.getCode()).append(": ").append(c.getName())
+                        .append(", Credits: ").append((long) c.getCredits())
+                        .append(", Module: ").append(c.getModule().getName()).newLine();
+            }
+
+            out.append("GPA: ").appendFixed(student.getAverage(), 2).newLine();
+            out.append("-------------------------").newLine();
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Writes the courses summary: each course followed by its enrolled students.
+     *
+     * @param out      the destination
+     * @param courses  the courses to list
+     * @param registry where the rosters are read from
+     * @param offset   number of courses to skip
+     * @param limit    maximum number of courses to write
+     * @return number of courses written
+     */
+    static int writeCourses(ReportWriter out, Collection<Course> courses, EnrollmentRegistry registry, int offset, int limit) {
+        out.append("Courses Summary:").newLine();
+        int skipped = 0;
+        int written = 0;
+        for (Course course : courses) {
+            if (written == limit) {
+                break;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            writeCourse(out, course);
+            out.newLine();
+            writeRoster(out, course.getCode(), registry.getRoster(course.getCode()));
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Writes the students enrolled in one course.
+     *
+     * @param out      the destination
+     * @param courseId the course code
+     * @param students the enrolled students
+     */
+    static void writeRoster(ReportWriter out, String courseId, Collection<Student> students) {
+        if (students.isEmpty()) {
+            out.append("  No students enrolled in ").append(courseId).newLine();
+            return;
+        }
+        out.append("  Enrolled Students:").newLine();
+        for (Student student : students) {
+            out.append("   - ");
+            writeStudent(out, student);
+            out.newLine();
+        }
+    }
+
+    /**
+     * Writes a course in the same form as {@link Course#toString()}.
+     */
+    private static void writeCourse(ReportWriter out, Course course) {
+        out.append("Course{code='").append(course.getCode()).append('\'')
+                .append(", name='").append(course.getName()).append('\'')
+                .append(", credits=").append((long) course.getCredits())
+                .append(", module=").append(course.getModule() != null ? course.getModule().getName() : "None")
+                .append('}');
+    }
+
+    /**
+     * Writes a student in the same form as {@link Student#toString()}.
+     */
+    private static void writeStudent(ReportWriter out, Student student) {
+        out.append("Student {").append(student.getId()).append('\'')
+                .append(", name='").append(student.getName()).append('\'')
+                .append(", email='").append(student.getEmail()).append('\'')
+                .append(", birthDate=").append(student.getBirthDate())
+                .append(", average=").appendFixed(student.getAverage(), 2)
+                .append(", approvedCourses=[");
+        boolean first = true;
+        for (Course course : student.getApprovedCourses()) {
+            if (!first) {
+                out.append(", ");
+            }
+            out.append(course.getCode());
+            first = false;
+        }
+        out.append("]}");
+    }
+}
@@ -0,0 +1,84 @@
+package com.generation.utils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list that only grows, with cheap immutable snapshots. Elements live in an array that is
+ * never overwritten below the current size, so a snapshot is a view over the filled prefix
+ * and costs no copy. Appends are amortized O(1); growing the array copies it, leaving the
+ * snapshots already handed out on the old array.
+ * <p>
+ * One thread may append at a time, e.g. under a lock held by the caller; snapshots can be
+ * taken from any thread without a lock.
+ *
+ * @param <E> the element type
+ */
+public class AppendOnlyList<E> {
+
+    /**
+     * Read-only view of the first entries of an array that are never modified again.
+     */
+    private static final class Prefix<E> extends AbstractList<E> implements RandomAccess {
+
+        private final Object[] elements;
+
+        private final int size;
+
+        Prefix(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private Object[] elements;
+
+    // View of the elements appended so far, replaced after every append
+    private volatile List<E> snapshot = List.of();
+
+    /**
+     * Creates an empty list.
+     *
+     * @param initialCapacity number of elements that fit before the array grows
+     */
+    public AppendOnlyList(int initialCapacity) {
+        elements = new Object[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Appends an element. Must not run concurrently with another append.
+     *
+     * @param element the element
+     */
+    public void add(E element) {
+        int size = snapshot.size();
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size] = element;
+        snapshot = new Prefix<>(elements, size + 1);
+    }
+
+    /**
+     * @return read-only snapshot of the elements appended so far, unchanged by later appends
+     */
+    public List<E> snapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,111 @@
+package com.generation.utils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Thread-safe, allocation-light checks for user supplied student data. Both methods are
+ * stateless, so they can be shared freely between threads, unlike a SimpleDateFormat or a
+ * regex Matcher.
+ */
+public class InputValidator {
+
+    private InputValidator() {
+    }
+
+    /**
+     * Checks an email address. Accepts exactly what
+     * {@code ^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$} accepts, without a regex.
+     *
+     * @param email the email address
+     * @return true if the email has a valid format
+     */
+    public static boolean isValidEmail(CharSequence email) {
+        int at = -1;
+        int lastDot = -1;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false; // Only one '@' is allowed
+                }
+                at = i;
+            } else if (c == '.') {
+                if (at >= 0) {
+                    lastDot = i;
+                }
+            } else if (!isAsciiLetterOrDigit(c) && c != '-' && !(at < 0 && (c == '_' || c == '%' || c == '+'))) {
+                return false;
+            }
+        }
+        if (at < 1 || lastDot < at + 2 || email.length() - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return false; // Top-level domain is letters only
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a date in dd/MM/yyyy format, rejecting dates that do not exist in the calendar.
+     * Day and month may be written with one digit; the year must have four.
+     *
+     * @param text the text to parse
+     * @return the date at the start of that day in the default time zone, or null if invalid
+     */
+    public static Date parseDate(CharSequence text) {
+        int length = text.length();
+        int pos = 0;
+
+        int day = 0;
+        int dayDigits = 0;
+        while (pos < length && dayDigits < 3 && isDigit(text.charAt(pos))) {
+            day = day * 10 + (text.charAt(pos++) - '0');
+            dayDigits++;
+        }
+        if (dayDigits == 0 || dayDigits > 2 || pos >= length || text.charAt(pos++) != '/') {
+            return null;
+        }
+
+        int month = 0;
+        int monthDigits = 0;
+        while (pos < length && monthDigits < 3 && isDigit(text.charAt(pos))) {
+            month = month * 10 + (text.charAt(pos++) - '0');
+            monthDigits++;
+        }
+        if (monthDigits == 0 || monthDigits > 2 || pos >= length || text.charAt(pos++) != '/') {
+            return null;
+        }
+
+        if (length - pos != 4) {
+            return null;
+        }
+        int year = 0;
+        while (pos < length) {
+            char c = text.charAt(pos++);
+            if (!isDigit(c)) {
+                return null;
+            }
+            year = year * 10 + (c - '0');
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return null;
+        }
+        return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || isDigit(c);
+    }
+}
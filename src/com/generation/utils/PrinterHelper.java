@@ -3,19 +3,11 @@ package com.generation.utils;
 import com.generation.model.Course;
 import com.generation.model.Student;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Scanner;
-import java.util.regex.Pattern;
 
 public class PrinterHelper {
 
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
-    );
-
     public static void showMainMenu() {
         System.out.println("|-------------------------------|");
         System.out.println("| Welcome to StudentGen         |");
@@ -49,23 +41,20 @@ public class PrinterHelper {
         while (true) {
             System.out.print("| Enter student email: ");
             email = scanner.nextLine();
-            if (EMAIL_PATTERN.matcher(email).matches()) {
+            if (InputValidator.isValidEmail(email)) {
                 break;
             }
             System.out.println("| Invalid email format, please try again.");
         }
 
         System.out.print("| Enter student birth date (dd/MM/yyyy): ");
-        DateFormat formatter = new SimpleDateFormat("dd/MM/yyyy");
-        formatter.setLenient(false);
-        Date birthDate = null;
+        String birthDateText = scanner.nextLine().trim();
+        Date birthDate = InputValidator.parseDate(birthDateText);
 
         while (birthDate == null) {
-            try {
-                birthDate = formatter.parse(scanner.nextLine());
-            } catch (ParseException e) {
-                System.out.print("| Invalid date format. Please use dd/MM/yyyy: ");
-            }
+            System.out.print("| Invalid date format. Please use dd/MM/yyyy: ");
+            birthDateText = scanner.nextLine().trim();
+            birthDate = InputValidator.parseDate(birthDateText);
         }
 
         System.out.println("|-------------------------------------|");
@@ -75,7 +64,7 @@ public class PrinterHelper {
         System.out.println("Name      : " + name);
         System.out.println("ID        : " + id);
         System.out.println("Email     : " + email);
-        System.out.println("Birth Date: " + formatter.format(birthDate));
+        System.out.println("Birth Date: " + birthDateText);
         System.out.print("Is this information correct? (Y/N): ");
         String confirmation = scanner.nextLine().trim().toUpperCase();
         if (!confirmation.equals("Y")) {
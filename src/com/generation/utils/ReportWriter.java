@@ -0,0 +1,250 @@
+package com.generation.utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Streams report text into a Writer through one large character buffer, so a long report
+ * costs a handful of writes instead of one per line. Numbers are appended digit by digit
+ * without going through String.format.
+ * <p>
+ * Not thread-safe; use one instance per report. I/O errors are rethrown as
+ * UncheckedIOException so report code can chain appends.
+ */
+public class ReportWriter implements Flushable, Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    // Scaled values this close to a halfway point are rounded by String.format instead
+    private static final double HALFWAY_TOLERANCE = 1e-3;
+
+    // Below this a scaled value keeps enough fraction bits to compare with the tolerance
+    private static final double MAX_FAST_PRODUCT = 0x1p40;
+
+    private final Writer out;
+
+    private final char[] buffer;
+
+    private int count;
+
+    private final String lineSeparator = System.lineSeparator();
+
+    /**
+     * Creates a report writer over a character stream.
+     *
+     * @param out the destination
+     */
+    public ReportWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a report writer over a character stream.
+     *
+     * @param out        the destination
+     * @param bufferSize size of the character buffer
+     */
+    public ReportWriter(Writer out, int bufferSize) {
+        this.out = out;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Creates a report writer over a byte stream, e.g. System.out. Print streams keep their
+     * own charset; other streams are written as UTF-8.
+     *
+     * @param out the destination
+     */
+    public ReportWriter(OutputStream out) {
+        this(new OutputStreamWriter(out, charsetOf(out)));
+    }
+
+    private static Charset charsetOf(OutputStream out) {
+        return out instanceof PrintStream printStream ? printStream.charset() : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Appends text.
+     *
+     * @param text the text, "null" if null
+     * @return this writer
+     */
+    public ReportWriter append(String text) {
+        if (text == null) {
+            text = "null";
+        }
+        int length = text.length();
+        int offset = 0;
+        while (offset < length) {
+            if (count == buffer.length) {
+                drain();
+            }
+            int chunk = Math.min(length - offset, buffer.length - count);
+            text.getChars(offset, offset + chunk, buffer, count);
+            count += chunk;
+            offset += chunk;
+        }
+        return this;
+    }
+
+    /**
+     * Appends the string value of an object.
+     *
+     * @param value the object
+     * @return this writer
+     */
+    public ReportWriter append(Object value) {
+        return append(String.valueOf(value));
+    }
+
+    /**
+     * Appends a single character.
+     *
+     * @param c the character
+     * @return this writer
+     */
+    public ReportWriter append(char c) {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = c;
+        return this;
+    }
+
+    /**
+     * Appends an integer in decimal.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public ReportWriter append(long value) {
+        if (value == Long.MIN_VALUE || buffer.length < 20) {
+            return append(Long.toString(value)); // Too long to place digit by digit
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        if (buffer.length - count < 20) {
+            drain();
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int position = count + digits;
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        count += digits;
+        return this;
+    }
+
+    /**
+     * Appends a number with a fixed number of decimals, rounding half up like {@code %.Nf}.
+     *
+     * @param value    the value
+     * @param decimals number of decimals, 0 to 6
+     * @return this writer
+     */
+    public ReportWriter appendFixed(double value, int decimals) {
+        if (!Double.isFinite(value)) {
+            return append(Double.toString(value));
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        double product = Math.abs(value) * scale;
+        double remainder = product - Math.floor(product);
+        if (product >= MAX_FAST_PRODUCT || Math.abs(remainder - 0.5) < HALFWAY_TOLERANCE) {
+            // The binary product cannot tell which side of the halfway point the decimal
+            // value lies on; let the formatter round the decimal digits
+            return append(String.format(Locale.ROOT, "%." + decimals + "f", value));
+        }
+        long scaled = Math.round(product);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            append('-'); // %.Nf keeps the sign of values that round to zero
+        }
+        append(scaled / scale);
+        if (decimals > 0) {
+            append('.');
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > 0; digit /= 10) {
+                append((char) ('0' + fraction / digit % 10));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Ends the current line.
+     *
+     * @return this writer
+     */
+    public ReportWriter newLine() {
+        return append(lineSeparator);
+    }
+
+    /**
+     * Formats a number with a fixed number of decimals, like {@link #appendFixed}.
+     *
+     * @param value    the value
+     * @param decimals number of decimals, 0 to 6
+     * @return the formatted number
+     */
+    public static String formatFixed(double value, int decimals) {
+        StringWriter text = new StringWriter(16);
+        ReportWriter writer = new ReportWriter(text, 32);
+        writer.appendFixed(value, decimals).flush();
+        return text.toString();
+    }
+
+    /**
+     * Writes buffered text to the destination and flushes it.
+     */
+    @Override
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes and closes the destination.
+     */
+    @Override
+    public void close() {
+        flush();
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() {
+        if (count == 0) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count = 0;
+    }
+}
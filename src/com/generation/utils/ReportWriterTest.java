@@ -0,0 +1,43 @@
+package com.generation.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportWriterTest {
+
+    /**
+     * Tests that fixed-point numbers are rounded exactly like String.format, including values
+     * whose decimal representation ends on a halfway point.
+     */
+    @Test
+    void testFixedMatchesStringFormat() {
+        assertEquals("1.01", ReportWriter.formatFixed(1.005, 2));
+        assertEquals("0.15", ReportWriter.formatFixed(0.145, 2));
+        assertEquals("0.57", ReportWriter.formatFixed(0.565, 2));
+        for (int decimals = 0; decimals <= 3; decimals++) {
+            for (int i = -5_000; i < 100_000; i++) {
+                double value = i / 1000.0;
+                assertEquals(String.format(Locale.ROOT, "%." + decimals + "f", value),
+                        ReportWriter.formatFixed(value, decimals), "Formatting " + value);
+            }
+        }
+        for (double value : new double[]{-0.0, 1e12 + 0.125, 123456789.987654, Double.NaN}) {
+            assertEquals(String.format(Locale.ROOT, "%.2f", value), ReportWriter.formatFixed(value, 2));
+        }
+    }
+
+    /**
+     * Tests that text longer than the buffer is written in full and in order.
+     */
+    @Test
+    void testAppendsBeyondBufferSize() {
+        StringWriter out = new StringWriter();
+        ReportWriter report = new ReportWriter(out, 8);
+        report.append("Average: ").appendFixed(7.25, 2).append(' ').append(-1234567890123L).newLine().flush();
+        assertEquals("Average: 7.25 -1234567890123" + System.lineSeparator(), out.toString());
+    }
+}